@@ -0,0 +1,69 @@
+package CodeGenerator;
+
+import LexicalAnalyzer.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A compiled program: bytecode, its constant pool and the local slot table.
+public class Chunk {
+    private byte[] code = new byte[256];
+    private Token[] tokens = new Token[256]; // source token of each instruction, for runtime errors
+    private int count = 0;
+    final List<Object> constants = new ArrayList<>();
+    // Index of each value added through addConstant.
+    private final Map<Object, Integer> constantIndex = new HashMap<>();
+    final List<String> slotNames = new ArrayList<>();
+    int maxStack = 0;
+
+    void write(byte value, Token token) {
+        if (count == code.length) {
+            code = Arrays.copyOf(code, count * 2);
+            tokens = Arrays.copyOf(tokens, count * 2);
+        }
+        code[count] = value;
+        tokens[count] = token;
+        count++;
+    }
+
+    void writeInt(int value, Token token) {
+        write((byte) (value >> 24), token);
+        write((byte) (value >> 16), token);
+        write((byte) (value >> 8), token);
+        write((byte) value, token);
+    }
+
+    void patchInt(int offset, int value) {
+        code[offset] = (byte) (value >> 24);
+        code[offset + 1] = (byte) (value >> 16);
+        code[offset + 2] = (byte) (value >> 8);
+        code[offset + 3] = (byte) value;
+    }
+
+    int addConstant(Object value) {
+        Integer index = constantIndex.get(value);
+        if (index != null) return index;
+        constants.add(value);
+        constantIndex.put(value, constants.size() - 1);
+        return constants.size() - 1;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int slotCount() {
+        return slotNames.size();
+    }
+
+    byte[] code() {
+        return code;
+    }
+
+    Token tokenAt(int offset) {
+        return tokens[offset];
+    }
+}
@@ -0,0 +1,288 @@
+package CodeGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal JVM class-file writer for JitCompiler: one public final class with
+// public static methods and nothing else.
+//
+// Classes are written as version 49 (Java 5). That version predates
+// StackMapTable, so the JVM verifies branches by type inference and the
+// emitter never has to compute stack map frames.
+final class ClassEmitter {
+    private static final int VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    // Opcodes used by JitCompiler.
+    static final int DCONST_0 = 0x0e, DCONST_1 = 0x0f;
+    static final int BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13, LDC2_W = 0x14;
+    static final int FLOAD = 0x17, DLOAD = 0x18, ALOAD = 0x19, DALOAD = 0x31;
+    static final int FSTORE = 0x38, DSTORE = 0x39, DASTORE = 0x52;
+    static final int POP2 = 0x58, DUP2 = 0x5c;
+    static final int DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f, DNEG = 0x77;
+    static final int I2D = 0x87, D2I = 0x8e, D2F = 0x90;
+    static final int DCMPL = 0x97, DCMPG = 0x98;
+    static final int IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e;
+    static final int GOTO = 0xa7, RETURN = 0xb1;
+    static final int INVOKEVIRTUAL = 0xb6, INVOKESTATIC = 0xb8;
+
+    // Branch target inside one method.
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> fixups = new ArrayList<>();
+    }
+
+    final class Method {
+        private final String name;
+        private final String descriptor;
+        private byte[] code = new byte[64];
+        private int length = 0;
+        private int stack = 0;
+        private int maxStack = 0;
+        private int maxLocals = 0;
+
+        private Method(String name, String descriptor, int parameterSlots) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxLocals = parameterSlots;
+        }
+
+        // Emits an instruction without operands; stackEffect is in JVM slots.
+        void op(int opcode, int stackEffect) {
+            write(opcode);
+            adjustStack(stackEffect);
+        }
+
+        void local(int opcode, int index, int stackEffect) {
+            if (index > 0xff) throw new IllegalStateException("Too many locals.");
+            write(opcode);
+            write(index);
+            int width = opcode == DLOAD || opcode == DSTORE ? 2 : 1;
+            maxLocals = Math.max(maxLocals, index + width);
+            adjustStack(stackEffect);
+        }
+
+        void constant(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                op(DCONST_0, 2);
+            } else if (value == 1.0) {
+                op(DCONST_1, 2);
+            } else {
+                write(LDC2_W);
+                writeShort(doubleConstant(value));
+                adjustStack(2);
+            }
+        }
+
+        void push(int value) {
+            if (value < Byte.MIN_VALUE || value > Short.MAX_VALUE) throw new IllegalStateException("Constant too large.");
+            if (value <= Byte.MAX_VALUE) {
+                write(BIPUSH);
+                write(value);
+            } else {
+                write(SIPUSH);
+                writeShort(value);
+            }
+            adjustStack(1);
+        }
+
+        void constant(String value) {
+            write(LDC_W);
+            writeShort(stringConstant(value));
+            adjustStack(1);
+        }
+
+        void invoke(int opcode, String owner, String name, String descriptor, int stackEffect) {
+            write(opcode);
+            writeShort(memberRef(10, owner, name, descriptor));
+            adjustStack(stackEffect);
+        }
+
+        void jump(int opcode, Label target, int stackEffect) {
+            int at = length;
+            write(opcode);
+            writeShort(0);
+            adjustStack(stackEffect);
+            if (target.position >= 0) {
+                patch(at, target.position);
+            } else {
+                target.fixups.add(at);
+            }
+        }
+
+        void bind(Label label) {
+            label.position = length;
+            for (int at : label.fixups) patch(at, length);
+            label.fixups.clear();
+        }
+
+        // For code after an unconditional jump, where the straight-line
+        // stack count does not match what the branch target sees.
+        void adjustStack(int delta) {
+            stack += delta;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private void patch(int at, int target) {
+            int offset = target - at;
+            if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                throw new IllegalStateException("Branch offset too large.");
+            }
+            code[at + 1] = (byte) (offset >> 8);
+            code[at + 2] = (byte) offset;
+        }
+
+        private void write(int b) {
+            if (length == code.length) code = Arrays.copyOf(code, length * 2);
+            code[length++] = (byte) b;
+        }
+
+        private void writeShort(int value) {
+            write(value >> 8);
+            write(value);
+        }
+    }
+
+    private final String className;
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+    private final List<Method> methods = new ArrayList<>();
+
+    // className uses internal form, e.g. "CodeGenerator/JitProgram".
+    ClassEmitter(String className) {
+        this.className = className;
+    }
+
+    // parameterSlots is how many locals the parameters take.
+    Method method(String name, String descriptor, int parameterSlots) {
+        Method method = new Method(name, descriptor, parameterSlots);
+        methods.add(method);
+        return method;
+    }
+
+    byte[] toByteArray() {
+        try {
+            int thisClass = classConstant(className);
+            int superClass = classConstant("java/lang/Object");
+            int codeName = utf8("Code");
+            for (Method method : methods) {
+                utf8(method.name);
+                utf8(method.descriptor);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // fields
+
+            out.writeShort(methods.size());
+            for (Method method : methods) {
+                out.writeShort(ACC_PUBLIC | ACC_STATIC);
+                out.writeShort(utf8(method.name));
+                out.writeShort(utf8(method.descriptor));
+                out.writeShort(1);
+                out.writeShort(codeName);
+                out.writeInt(12 + method.length);
+                out.writeShort(method.maxStack);
+                out.writeShort(method.maxLocals);
+                out.writeInt(method.length);
+                out.write(method.code, 0, method.length);
+                out.writeShort(0); // exception table
+                out.writeShort(0); // code attributes
+            }
+
+            out.writeShort(0); // class attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int utf8(String value) {
+        return entry("U" + value, () -> {
+            poolOut.writeByte(1);
+            poolOut.writeUTF(value);
+        }, 1);
+    }
+
+    private int classConstant(String name) {
+        int nameIndex = utf8(name);
+        return entry("C" + name, () -> {
+            poolOut.writeByte(7);
+            poolOut.writeShort(nameIndex);
+        }, 1);
+    }
+
+    private int stringConstant(String value) {
+        int valueIndex = utf8(value);
+        return entry("S" + value, () -> {
+            poolOut.writeByte(8);
+            poolOut.writeShort(valueIndex);
+        }, 1);
+    }
+
+    private int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        // Doubles take two constant pool entries.
+        return entry("D" + bits, () -> {
+            poolOut.writeByte(6);
+            poolOut.writeLong(bits);
+        }, 2);
+    }
+
+    // tag 9 is a Fieldref, 10 a Methodref.
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classConstant(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = entry("N" + name + ":" + descriptor, () -> {
+            poolOut.writeByte(12);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descriptorIndex);
+        }, 1);
+        return entry(tag + owner + "." + name + ":" + descriptor, () -> {
+            poolOut.writeByte(tag);
+            poolOut.writeShort(ownerIndex);
+            poolOut.writeShort(nameAndType);
+        }, 1);
+    }
+
+    private interface PoolWriter {
+        void write() throws IOException;
+    }
+
+    private int entry(String key, PoolWriter writer, int width) {
+        Integer existing = poolIndex.get(key);
+        if (existing != null) return existing;
+
+        try {
+            writer.write();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int index = poolCount;
+        poolCount += width;
+        if (poolCount > 0xffff) throw new IllegalStateException("Constant pool too large.");
+        poolIndex.put(key, index);
+        return index;
+    }
+}
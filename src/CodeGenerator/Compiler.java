@@ -0,0 +1,323 @@
+package CodeGenerator;
+
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import SematicAnalyzer.Operations;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+
+import java.util.List;
+
+// Lowers resolved statements (see SematicAnalyzer.Resolver) to a single bytecode Chunk.
+public class Compiler implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+    // Operand of OpCode.INPUT.
+    static class InputTarget {
+        final List<Token> names;
+        final int[] slots;
+
+        InputTarget(List<Token> names, int[] slots) {
+            this.names = names;
+            this.slots = slots;
+        }
+    }
+
+    private final Chunk chunk = new Chunk();
+    private int stackDepth = 0;
+
+    public Chunk compile(List<Stmt> statements) {
+        for (Stmt statement : statements) {
+            compile(statement);
+        }
+        emit(OpCode.RETURN, null, 0);
+        return chunk;
+    }
+
+    private void compile(Stmt stmt) {
+        stmt.accept(this);
+    }
+
+    private void compile(Expr expr) {
+        if (expr == null) {
+            emit(OpCode.NIL, null, 1);
+            return;
+        }
+        expr.accept(this);
+    }
+
+    // Locals use the slots the Resolver bound; the VM has a single frame, so
+    // every binding is program-level.
+    private int slot(Token name, int slot) {
+        while (chunk.slotNames.size() <= slot) chunk.slotNames.add(null);
+        chunk.slotNames.set(slot, name.getLexeme());
+        return slot;
+    }
+
+    private void emit(byte op, Token token, int stackEffect) {
+        chunk.write(op, token);
+        stackDepth += stackEffect;
+        if (stackDepth > chunk.maxStack) chunk.maxStack = stackDepth;
+    }
+
+    private void emit(byte op, int operand, Token token, int stackEffect) {
+        emit(op, token, stackEffect);
+        chunk.writeInt(operand, token);
+    }
+
+    private void emitConstant(Object value) {
+        emit(OpCode.CONSTANT, chunk.addConstant(value), null, 1);
+    }
+
+    private void emitDefine(byte op, Stmt.Var var) {
+        String type = var.getType();
+        Token name = var.name;
+        emit(op, slot(name, var.slot), name, -1);
+        chunk.writeInt(chunk.addConstant(type), name);
+    }
+
+    private int emitJump(byte op, int stackEffect) {
+        emit(op, -1, null, stackEffect);
+        return chunk.size() - 4;
+    }
+
+    private void patchJump(int operand) {
+        chunk.patchInt(operand, chunk.size() - operand - 4);
+    }
+
+    private void emitLoop(int loopStart) {
+        emit(OpCode.LOOP, null, 0);
+        chunk.writeInt(chunk.size() - loopStart + 4, null);
+    }
+
+    @Override
+    public Void visitLiteralExpr(Expr.Literal expr) {
+        if (expr.value == null) {
+            emit(OpCode.NIL, null, 1);
+        } else if (expr.value.equals(Boolean.TRUE)) {
+            emit(OpCode.TRUE, null, 1);
+        } else if (expr.value.equals(Boolean.FALSE)) {
+            emit(OpCode.FALSE, null, 1);
+        } else {
+            emitConstant(expr.value);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitGroupingExpr(Expr.Grouping expr) {
+        compile(expr.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryExpr(Expr.Unary expr) {
+        compile(expr.right);
+        switch (expr.operator.getTokenType()) {
+            case MINUS -> emit(OpCode.NEGATE, expr.operator, 0);
+            case NOT -> emit(OpCode.NOT, expr.operator, 0);
+            default -> {
+                // Unreachable.
+                emit(OpCode.POP, null, -1);
+                emit(OpCode.NIL, null, 1);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryExpr(Expr.Binary expr) {
+        compile(expr.left);
+        compile(expr.right);
+        byte op = switch (expr.operator.getTokenType()) {
+            case PLUS -> OpCode.ADD;
+            case MINUS -> OpCode.SUBTRACT;
+            case MULTIPLY -> OpCode.MULTIPLY;
+            case DIVIDE -> OpCode.DIVIDE;
+            case MODULO -> OpCode.MODULO;
+            case GREATER_THAN -> OpCode.GREATER;
+            case GREATER_EQUAL -> OpCode.GREATER_EQUAL;
+            case LESS_THAN -> OpCode.LESS;
+            case LESS_EQUAL -> OpCode.LESS_EQUAL;
+            case EQUALS -> OpCode.EQUAL;
+            case NOT_EQUALS -> OpCode.NOT_EQUAL;
+            case CONCAT -> OpCode.CONCAT;
+            case NEXT_LINE -> OpCode.NEXT_LINE;
+            default -> throw new IllegalStateException("Unknown binary operator " + expr.operator.getTokenType());
+        };
+        emit(op, expr.operator, -1);
+        return null;
+    }
+
+    @Override
+    public Void visitConcatExpr(Expr.Concat expr) {
+        for (Expr part : expr.parts) compile(part);
+        emit(OpCode.BUILD_STRING, expr.parts.size(), null, 1 - expr.parts.size());
+        return null;
+    }
+
+    @Override
+    public Void visitLogicalExpr(Expr.Logical expr) {
+        compile(expr.left);
+        if (expr.operator.getTokenType() == TokenType.OR) {
+            int elseJump = emitJump(OpCode.JUMP_IF_FALSE, 0);
+            int endJump = emitJump(OpCode.JUMP, 0);
+            patchJump(elseJump);
+            emit(OpCode.POP, null, -1);
+            compile(expr.right);
+            patchJump(endJump);
+        } else {
+            int endJump = emitJump(OpCode.JUMP_IF_FALSE, 0);
+            emit(OpCode.POP, null, -1);
+            compile(expr.right);
+            patchJump(endJump);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitVariableExpr(Expr.Variable expr) {
+        emit(OpCode.GET, slot(expr.name, expr.slot), expr.name, 1);
+        return null;
+    }
+
+    @Override
+    public Void visitAssignExpr(Expr.Assign expr) {
+        compile(expr.value);
+        byte op = expr.checked ? OpCode.SET_UNCHECKED : OpCode.SET;
+        emit(op, slot(expr.name, expr.slot), expr.name, 0);
+        return null;
+    }
+
+    @Override
+    public Void visitIncrementExpr(Expr.Increment expr) {
+        emit(OpCode.INCREMENT, slot(expr.name, expr.slot), expr.name, 1);
+        return null;
+    }
+
+    @Override
+    public Void visitDecrementExpr(Expr.Decrement expr) {
+        emit(OpCode.DECREMENT, slot(expr.name, expr.slot), expr.name, 1);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStmt(Stmt.Block stmt) {
+        for (Stmt statement : stmt.statements) {
+            compile(statement);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitSugodStmt(Stmt.Sugod stmt) {
+        for (Stmt statement : stmt.statements) {
+            compile(statement);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitExpressionStmt(Stmt.Expression stmt) {
+        compile(stmt.expression);
+        emit(OpCode.POP, null, -1);
+        return null;
+    }
+
+    @Override
+    public Void visitPrintStmt(Stmt.Print stmt) {
+        if (stmt.expression instanceof Expr.Concat) {
+            List<Expr> parts = ((Expr.Concat) stmt.expression).parts;
+            for (Expr part : parts) compile(part);
+            emit(OpCode.PRINT_ALL, parts.size(), null, -parts.size());
+            return null;
+        }
+        compile(stmt.expression);
+        emit(OpCode.PRINT, null, -1);
+        return null;
+    }
+
+    @Override
+    public Void visitVarStmt(Stmt.Var stmt) {
+        if (stmt.initializer != null) {
+            compile(stmt.initializer);
+        } else {
+            emitConstant(Operations.defaultValue(stmt.name, stmt.getType()));
+        }
+        emitDefine(OpCode.DEFINE, stmt);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDeclarationStmt(Stmt.VarDeclaration stmt) {
+        for (Stmt.Var var : stmt.variables) {
+            if (var.initializer != null) {
+                compile(var.initializer);
+                emitDefine(var.checked ? OpCode.DEFINE : OpCode.DEFINE_TYPED, var);
+            } else {
+                emit(OpCode.NIL, null, 1);
+                emitDefine(OpCode.DEFINE, var);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitInputStmt(Stmt.Input stmt) {
+        List<Token> names = stmt.getVariableNames();
+        int[] targets = new int[names.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = slot(names.get(i), stmt.slots[i]);
+        }
+        chunk.constants.add(new InputTarget(names, targets));
+        emit(OpCode.INPUT, chunk.constants.size() - 1, names.get(0), 0);
+        return null;
+    }
+
+    @Override
+    public Void visitIfStmt(Stmt.If stmt) {
+        compile(stmt.condition);
+        int thenJump = emitJump(OpCode.JUMP_IF_FALSE, 0);
+        emit(OpCode.POP, null, -1);
+        compile(stmt.thenBranch);
+        int elseJump = emitJump(OpCode.JUMP, 0);
+
+        patchJump(thenJump);
+        emit(OpCode.POP, null, 0); // the condition is popped on exactly one path
+        if (stmt.elseBranch != null) compile(stmt.elseBranch);
+        patchJump(elseJump);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStmt(Stmt.While stmt) {
+        int loopStart = chunk.size();
+        compile(stmt.condition);
+        int exitJump = emitJump(OpCode.JUMP_IF_FALSE, 0);
+        emit(OpCode.POP, null, -1);
+        compile(stmt.body);
+        emitLoop(loopStart);
+
+        patchJump(exitJump);
+        emit(OpCode.POP, null, 0);
+        return null;
+    }
+
+    @Override
+    public Void visitForStmt(Stmt.For stmt) {
+        if (stmt.initializer != null) compile(stmt.initializer);
+
+        int loopStart = chunk.size();
+        compile(stmt.condition);
+        int exitJump = emitJump(OpCode.JUMP_IF_FALSE, 0);
+        emit(OpCode.POP, null, -1);
+        compile(stmt.body);
+        if (stmt.increment != null) {
+            compile(stmt.increment);
+            emit(OpCode.POP, null, -1);
+        }
+        emitLoop(loopStart);
+
+        patchJump(exitJump);
+        emit(OpCode.POP, null, 0);
+        return null;
+    }
+}
@@ -0,0 +1,522 @@
+package CodeGenerator;
+
+import LexicalAnalyzer.ExecutionContext;
+import LexicalAnalyzer.TokenType;
+import SematicAnalyzer.Interpreter;
+import SematicAnalyzer.Operations;
+import SematicAnalyzer.OutputSink;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+import SyntaxAnalyzer.ValueType;
+import Utility.RuntimeError;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Compiles a resolved, type-checked program to a JVM hidden class whose
+// static run(OutputSink) method is the whole program. NUMERO variables become double
+// locals and TIPIK variables float locals, so HotSpot optimizes them like
+// ordinary Java code.
+//
+// Only a subset is supported: NUMERO/TIPIK variables declared with an
+// initializer at the top level before any use, numeric arithmetic and
+// comparisons, IPAKITA, KUNG and SAMTANG. Every variable in the subset is
+// always defined and never null, so none of the runtime checks apply.
+// Anything else makes interpret() fall back to the tree-walking Interpreter.
+public class JitCompiler {
+    private static final String CLASS_NAME = "CodeGenerator/JitProgram";
+    private static final String OPERATIONS = "SematicAnalyzer/Operations";
+
+    // Thrown when the program leaves the supported subset.
+    private static class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported(String what) {
+            super(what, null, false, false);
+        }
+    }
+
+    private static class Local {
+        final ValueType type;
+        final int index;
+
+        Local(ValueType type, int index) {
+            this.type = type;
+            this.index = index;
+        }
+    }
+
+    // A hot SAMTANG loop compiled for on-stack replacement. The Interpreter
+    // copies the loop's variables in, runs the rest of the loop here, and
+    // copies them back out.
+    public static final class Loop {
+        // Program slots the loop touches; all must hold NUMERO values on entry.
+        public final int[] slots;
+        private final MethodHandle handle;
+
+        private Loop(int[] slots, MethodHandle handle) {
+            this.slots = slots;
+            this.handle = handle;
+        }
+
+        // values[i] holds slots[i] and receives its final value.
+        public void run(double[] values, OutputSink output) {
+            try {
+                handle.invokeExact(values, output);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    private final ExecutionContext context;
+    private final Map<Integer, Local> locals = new HashMap<>();
+    // The local holding the OutputSink that IPAKITA prints to.
+    private int output;
+    private int nextLocal = 0;
+    // Declarations are only supported outside KUNG and SAMTANG bodies, where
+    // source order is execution order.
+    private int nesting = 0;
+    private ClassEmitter.Method code;
+
+    public JitCompiler() {
+        this(ExecutionContext.standard());
+    }
+
+    public JitCompiler(ExecutionContext context) {
+        this.context = context;
+    }
+
+    public void interpret(List<Stmt> statements) {
+        MethodHandle program = compile(statements);
+        if (program == null) {
+            new Interpreter(true, context).interpret(statements);
+            return;
+        }
+
+        OutputSink output = context.output();
+        try {
+            program.invokeExact(output);
+        } catch (RuntimeError error) {
+            context.runtimeError(error);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // Returns a handle to the compiled program, or null if it uses anything
+    // outside the supported subset.
+    public MethodHandle compile(List<Stmt> statements) {
+        ClassEmitter emitter = new ClassEmitter(CLASS_NAME);
+        code = emitter.method("run", "(LSematicAnalyzer/OutputSink;)V", 1);
+        output = 0;
+        nextLocal = 1;
+        try {
+            for (Stmt statement : statements) {
+                compile(statement);
+            }
+        } catch (Unsupported | IllegalStateException e) {
+            return null;
+        }
+        code.op(ClassEmitter.RETURN, 0);
+        return define(emitter, MethodType.methodType(void.class, OutputSink.class));
+    }
+
+    // Compiles a SAMTANG or ALANG SA loop to run(double[], OutputSink), or
+    // returns null if it leaves the supported subset. Only NUMERO variables
+    // may appear in it. An ALANG SA is entered after its increment, so its
+    // initializer is skipped.
+    public Loop compileLoop(Stmt loop) {
+        int[] slots;
+        ClassEmitter emitter = new ClassEmitter(CLASS_NAME);
+        code = emitter.method("run", "([DLSematicAnalyzer/OutputSink;)V", 2);
+        output = 1;
+        nextLocal = 2;
+        nesting = 1;
+        try {
+            Set<Integer> used = new TreeSet<>();
+            if (loop instanceof Stmt.For) {
+                collectSlots(((Stmt.For) loop).condition, used);
+                collectSlots(((Stmt.For) loop).increment, used);
+                collectSlots(((Stmt.For) loop).body, used);
+            } else {
+                collectSlots(loop, used);
+            }
+            slots = used.stream().mapToInt(Integer::intValue).toArray();
+
+            for (int i = 0; i < slots.length; i++) {
+                Local local = new Local(ValueType.NUMERO, nextLocal);
+                nextLocal += 2;
+                locals.put(slots[i], local);
+                code.local(ClassEmitter.ALOAD, 0, 1);
+                code.push(i);
+                code.op(ClassEmitter.DALOAD, 0);
+                code.local(ClassEmitter.DSTORE, local.index, -2);
+            }
+            if (loop instanceof Stmt.For) {
+                Stmt.For forStmt = (Stmt.For) loop;
+                compileLoop(forStmt.condition, forStmt.body, forStmt.increment);
+            } else {
+                compile(loop);
+            }
+            for (int i = 0; i < slots.length; i++) {
+                code.local(ClassEmitter.ALOAD, 0, 1);
+                code.push(i);
+                code.local(ClassEmitter.DLOAD, locals.get(slots[i]).index, 2);
+                code.op(ClassEmitter.DASTORE, -4);
+            }
+        } catch (Unsupported | IllegalStateException e) {
+            return null;
+        }
+        code.op(ClassEmitter.RETURN, 0);
+
+        MethodHandle handle = define(emitter, MethodType.methodType(void.class, double[].class, OutputSink.class));
+        return handle == null ? null : new Loop(slots, handle);
+    }
+
+    private static MethodHandle define(ClassEmitter emitter, MethodType type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClass(emitter.toByteArray(), true);
+            return lookup.findStatic(lookup.lookupClass(), "run", type);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static void collectSlots(Stmt stmt, Set<Integer> slots) {
+        if (stmt instanceof Stmt.Block) {
+            for (Stmt statement : ((Stmt.Block) stmt).statements) collectSlots(statement, slots);
+        } else if (stmt instanceof Stmt.Expression) {
+            collectSlots(((Stmt.Expression) stmt).expression, slots);
+        } else if (stmt instanceof Stmt.Print) {
+            collectSlots(((Stmt.Print) stmt).expression, slots);
+        } else if (stmt instanceof Stmt.If) {
+            collectSlots(((Stmt.If) stmt).condition, slots);
+            collectSlots(((Stmt.If) stmt).thenBranch, slots);
+            collectSlots(((Stmt.If) stmt).elseBranch, slots);
+        } else if (stmt instanceof Stmt.While) {
+            collectSlots(((Stmt.While) stmt).condition, slots);
+            collectSlots(((Stmt.While) stmt).body, slots);
+        } else if (stmt instanceof Stmt.For) {
+            collectSlots(((Stmt.For) stmt).initializer, slots);
+            collectSlots(((Stmt.For) stmt).condition, slots);
+            collectSlots(((Stmt.For) stmt).increment, slots);
+            collectSlots(((Stmt.For) stmt).body, slots);
+        } else if (stmt != null) {
+            throw new Unsupported(stmt.getClass().getSimpleName());
+        }
+    }
+
+    private static void collectSlots(Expr expr, Set<Integer> slots) {
+        if (expr instanceof Expr.Variable) {
+            slots.add(((Expr.Variable) expr).slot);
+        } else if (expr instanceof Expr.Assign) {
+            slots.add(((Expr.Assign) expr).slot);
+            collectSlots(((Expr.Assign) expr).value, slots);
+        } else if (expr instanceof Expr.Increment) {
+            slots.add(((Expr.Increment) expr).slot);
+        } else if (expr instanceof Expr.Decrement) {
+            slots.add(((Expr.Decrement) expr).slot);
+        } else if (expr instanceof Expr.Binary) {
+            collectSlots(((Expr.Binary) expr).left, slots);
+            collectSlots(((Expr.Binary) expr).right, slots);
+        } else if (expr instanceof Expr.Grouping) {
+            collectSlots(((Expr.Grouping) expr).expression, slots);
+        } else if (expr instanceof Expr.Unary) {
+            collectSlots(((Expr.Unary) expr).right, slots);
+        } else if (expr instanceof Expr.Logical) {
+            throw new Unsupported("logical operator");
+        }
+    }
+
+    private void compile(Stmt stmt) {
+        if (stmt instanceof Stmt.Sugod) {
+            for (Stmt statement : ((Stmt.Sugod) stmt).statements) compile(statement);
+        } else if (stmt instanceof Stmt.Block) {
+            for (Stmt statement : ((Stmt.Block) stmt).statements) compile(statement);
+        } else if (stmt instanceof Stmt.VarDeclaration) {
+            for (Stmt.Var var : ((Stmt.VarDeclaration) stmt).variables) declare(var, true);
+        } else if (stmt instanceof Stmt.Var) {
+            declare((Stmt.Var) stmt, false);
+        } else if (stmt instanceof Stmt.Expression) {
+            compileExpressionStmt(((Stmt.Expression) stmt).expression);
+        } else if (stmt instanceof Stmt.Print) {
+            code.local(ClassEmitter.ALOAD, output, 1);
+            compileString(((Stmt.Print) stmt).expression);
+            code.invoke(ClassEmitter.INVOKEVIRTUAL, "SematicAnalyzer/OutputSink", "print", "(Ljava/lang/String;)V", -2);
+        } else if (stmt instanceof Stmt.If) {
+            Stmt.If ifStmt = (Stmt.If) stmt;
+            ClassEmitter.Label elseLabel = new ClassEmitter.Label();
+            ClassEmitter.Label end = new ClassEmitter.Label();
+            compileCondition(ifStmt.condition, elseLabel);
+            nesting++;
+            compile(ifStmt.thenBranch);
+            if (ifStmt.elseBranch != null) {
+                code.jump(ClassEmitter.GOTO, end, 0);
+                code.bind(elseLabel);
+                compile(ifStmt.elseBranch);
+            } else {
+                code.bind(elseLabel);
+            }
+            code.bind(end);
+            nesting--;
+        } else if (stmt instanceof Stmt.While) {
+            compileLoop(((Stmt.While) stmt).condition, ((Stmt.While) stmt).body, null);
+        } else if (stmt instanceof Stmt.For) {
+            Stmt.For forStmt = (Stmt.For) stmt;
+            if (forStmt.initializer != null) compile(forStmt.initializer);
+            compileLoop(forStmt.condition, forStmt.body, forStmt.increment);
+        } else {
+            throw new Unsupported(stmt.getClass().getSimpleName());
+        }
+    }
+
+    private void compileLoop(Expr condition, Stmt body, Expr increment) {
+        ClassEmitter.Label start = new ClassEmitter.Label();
+        ClassEmitter.Label exit = new ClassEmitter.Label();
+        code.bind(start);
+        compileCondition(condition, exit);
+        nesting++;
+        compile(body);
+        if (increment != null) compileExpressionStmt(increment);
+        nesting--;
+        code.jump(ClassEmitter.GOTO, start, 0);
+        code.bind(exit);
+    }
+
+    private void declare(Stmt.Var var, boolean checked) {
+        if (nesting > 0) throw new Unsupported("nested MUGNA");
+        if (locals.containsKey(var.slot)) throw new Unsupported("redeclared variable");
+
+        ValueType type = ValueType.ofDeclared(var.getType());
+        if (var.initializer == null) {
+            // Only visitVarStmt fills in a default; MUGNA without one is null.
+            if (checked) throw new Unsupported("null variable");
+            code.constant(0.0);
+        } else {
+            if (var.initializer.valueType != ValueType.NUMERO) throw new Unsupported("initializer");
+            // An unchecked Stmt.Var stores the initializer as-is, so a TIPIK
+            // would end up holding a Double.
+            if (!checked && type != ValueType.NUMERO) throw new Unsupported("initializer");
+            compileNumber(var.initializer);
+        }
+
+        Local local;
+        if (type == ValueType.NUMERO) {
+            local = new Local(type, nextLocal);
+            nextLocal += 2;
+            code.local(ClassEmitter.DSTORE, local.index, -2);
+        } else if (type == ValueType.TIPIK) {
+            local = new Local(type, nextLocal);
+            nextLocal += 1;
+            code.op(ClassEmitter.D2F, -1);
+            code.local(ClassEmitter.FSTORE, local.index, -1);
+        } else {
+            throw new Unsupported("variable type " + type);
+        }
+        locals.put(var.slot, local);
+    }
+
+    private Local number(int slot) {
+        Local local = locals.get(slot);
+        if (local == null || local.type != ValueType.NUMERO) throw new Unsupported("variable");
+        return local;
+    }
+
+    private void compileExpressionStmt(Expr expr) {
+        if (expr instanceof Expr.Variable) {
+            // Only checks that the variable exists, which it always does here.
+            number(((Expr.Variable) expr).slot);
+            return;
+        }
+        if (expr instanceof Expr.Assign) {
+            Expr.Assign assign = (Expr.Assign) expr;
+            Local target = number(assign.slot);
+            if (assign.value.valueType != ValueType.NUMERO) throw new Unsupported("assignment");
+            compileNumber(assign.value);
+            code.local(ClassEmitter.DSTORE, target.index, -2);
+            return;
+        }
+        compileNumber(expr);
+        code.op(ClassEmitter.POP2, -2);
+    }
+
+    // Leaves a double on the stack.
+    private void compileNumber(Expr expr) {
+        if (expr.valueType != ValueType.NUMERO) throw new Unsupported("non-numeric expression");
+
+        if (expr instanceof Expr.Literal && ((Expr.Literal) expr).value instanceof Double) {
+            code.constant((Double) ((Expr.Literal) expr).value);
+        } else if (expr instanceof Expr.Variable) {
+            code.local(ClassEmitter.DLOAD, number(((Expr.Variable) expr).slot).index, 2);
+        } else if (expr instanceof Expr.Grouping) {
+            compileNumber(((Expr.Grouping) expr).expression);
+        } else if (expr instanceof Expr.Unary && ((Expr.Unary) expr).operator.getTokenType() == TokenType.MINUS) {
+            compileNumber(((Expr.Unary) expr).right);
+            code.op(ClassEmitter.DNEG, 0);
+        } else if (expr instanceof Expr.Binary) {
+            compileArithmetic((Expr.Binary) expr);
+        } else if (expr instanceof Expr.Increment) {
+            compileIncrement(((Expr.Increment) expr).slot, ClassEmitter.DADD);
+        } else if (expr instanceof Expr.Decrement) {
+            compileIncrement(((Expr.Decrement) expr).slot, ClassEmitter.DSUB);
+        } else if (expr instanceof Expr.Assign) {
+            Expr.Assign assign = (Expr.Assign) expr;
+            Local target = number(assign.slot);
+            compileNumber(assign.value);
+            code.op(ClassEmitter.DUP2, 2);
+            code.local(ClassEmitter.DSTORE, target.index, -2);
+        } else {
+            throw new Unsupported(expr.getClass().getSimpleName());
+        }
+    }
+
+    private void compileArithmetic(Expr.Binary expr) {
+        TokenType operator = expr.operator.getTokenType();
+        if (expr.left.valueType != ValueType.NUMERO || expr.right.valueType != ValueType.NUMERO) {
+            throw new Unsupported("operands");
+        }
+
+        if (operator == TokenType.MODULO) {
+            // Operations.binary takes intValue() of both sides, like d2i.
+            compileNumber(expr.left);
+            code.op(ClassEmitter.D2I, -1);
+            compileNumber(expr.right);
+            code.op(ClassEmitter.D2I, -1);
+            code.invoke(ClassEmitter.INVOKESTATIC, "java/lang/Math", "floorMod", "(II)I", -1);
+            code.op(ClassEmitter.I2D, 1);
+            return;
+        }
+
+        compileNumber(expr.left);
+        compileNumber(expr.right);
+        switch (operator) {
+            case PLUS -> code.op(ClassEmitter.DADD, -2);
+            case MINUS -> code.op(ClassEmitter.DSUB, -2);
+            case MULTIPLY -> code.op(ClassEmitter.DMUL, -2);
+            case DIVIDE -> code.op(ClassEmitter.DDIV, -2);
+            default -> throw new Unsupported("operator " + operator);
+        }
+    }
+
+    private void compileIncrement(int slot, int opcode) {
+        Local local = number(slot);
+        code.local(ClassEmitter.DLOAD, local.index, 2);
+        code.op(ClassEmitter.DCONST_1, 2);
+        code.op(opcode, -2);
+        code.op(ClassEmitter.DUP2, 2);
+        code.local(ClassEmitter.DSTORE, local.index, -2);
+    }
+
+    // Jumps to whenFalse if the condition is false, falls through otherwise.
+    private void compileCondition(Expr expr, ClassEmitter.Label whenFalse) {
+        while (expr instanceof Expr.Grouping) expr = ((Expr.Grouping) expr).expression;
+        if (!(expr instanceof Expr.Binary)) throw new Unsupported("condition");
+
+        Expr.Binary binary = (Expr.Binary) expr;
+        if (binary.left.valueType != ValueType.NUMERO || binary.right.valueType != ValueType.NUMERO) {
+            throw new Unsupported("condition operands");
+        }
+        compileNumber(binary.left);
+        compileNumber(binary.right);
+
+        // dcmpg/dcmpl are picked so that NaN compares false, as in Java.
+        switch (binary.operator.getTokenType()) {
+            case LESS_THAN -> {
+                code.op(ClassEmitter.DCMPG, -3);
+                code.jump(ClassEmitter.IFGE, whenFalse, -1);
+            }
+            case LESS_EQUAL -> {
+                code.op(ClassEmitter.DCMPG, -3);
+                code.jump(ClassEmitter.IFGT, whenFalse, -1);
+            }
+            case GREATER_THAN -> {
+                code.op(ClassEmitter.DCMPL, -3);
+                code.jump(ClassEmitter.IFLE, whenFalse, -1);
+            }
+            case GREATER_EQUAL -> {
+                code.op(ClassEmitter.DCMPL, -3);
+                code.jump(ClassEmitter.IFLT, whenFalse, -1);
+            }
+            // Double.compare agrees with the Double.equals used by Operations.isEqual.
+            case EQUALS -> {
+                code.invoke(ClassEmitter.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", -3);
+                code.jump(ClassEmitter.IFNE, whenFalse, -1);
+            }
+            case NOT_EQUALS -> {
+                code.invoke(ClassEmitter.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", -3);
+                code.jump(ClassEmitter.IFEQ, whenFalse, -1);
+            }
+            default -> throw new Unsupported("condition operator");
+        }
+    }
+
+    // Leaves Operations.stringify(value) on the stack.
+    private void compileString(Expr expr) {
+        if (expr instanceof Expr.Grouping) {
+            compileString(((Expr.Grouping) expr).expression);
+        } else if (expr instanceof Expr.Literal) {
+            code.constant(Operations.stringify(((Expr.Literal) expr).value));
+        } else if (expr instanceof Expr.Variable && locals.get(((Expr.Variable) expr).slot) != null
+                && locals.get(((Expr.Variable) expr).slot).type == ValueType.TIPIK) {
+            code.local(ClassEmitter.FLOAD, locals.get(((Expr.Variable) expr).slot).index, 1);
+            code.invoke(ClassEmitter.INVOKESTATIC, "java/lang/Float", "valueOf", "(F)Ljava/lang/Float;", 0);
+            stringify();
+        } else if (expr.valueType == ValueType.NUMERO) {
+            compileNumber(expr);
+            code.invoke(ClassEmitter.INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;", -1);
+            stringify();
+        } else if (expr instanceof Expr.Binary && isStringOperator(((Expr.Binary) expr).operator.getTokenType())) {
+            Expr.Binary binary = (Expr.Binary) expr;
+            compileString(binary.left);
+            if (binary.operator.getTokenType() == TokenType.NEXT_LINE) {
+                code.constant("\n");
+                concat();
+            }
+            compileString(binary.right);
+            concat();
+        } else if (expr instanceof Expr.Concat) {
+            List<Expr> parts = ((Expr.Concat) expr).parts;
+            compileString(parts.get(0));
+            for (int i = 1; i < parts.size(); i++) {
+                compileString(parts.get(i));
+                concat();
+            }
+        } else if (expr instanceof Expr.Binary) {
+            ClassEmitter.Label whenFalse = new ClassEmitter.Label();
+            ClassEmitter.Label end = new ClassEmitter.Label();
+            compileCondition(expr, whenFalse);
+            code.constant("OO");
+            code.jump(ClassEmitter.GOTO, end, 0);
+            code.bind(whenFalse);
+            code.adjustStack(-1);
+            code.constant("DILI");
+            code.bind(end);
+        } else {
+            throw new Unsupported("printed expression");
+        }
+    }
+
+    private static boolean isStringOperator(TokenType operator) {
+        return operator == TokenType.CONCAT || operator == TokenType.NEXT_LINE;
+    }
+
+    private void stringify() {
+        code.invoke(ClassEmitter.INVOKESTATIC, OPERATIONS, "stringify", "(Ljava/lang/Object;)Ljava/lang/String;", 0);
+    }
+
+    private void concat() {
+        code.invoke(ClassEmitter.INVOKEVIRTUAL, "java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", -1);
+    }
+}
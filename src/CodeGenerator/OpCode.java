@@ -0,0 +1,49 @@
+package CodeGenerator;
+
+// Instruction set of the bytecode VM. Operands follow the opcode byte and are
+// 32-bit big-endian values, so no constant index, slot or jump is ever too
+// large to encode.
+public final class OpCode {
+    private OpCode() {
+    }
+
+    public static final byte CONSTANT = 0;        // [index]  push constants[index]
+    public static final byte NIL = 1;
+    public static final byte TRUE = 2;
+    public static final byte FALSE = 3;
+    public static final byte POP = 4;
+
+    public static final byte GET = 5;             // [slot]   push local
+    public static final byte SET = 6;             // [slot]   store top of stack with a type check, keep it
+    public static final byte DEFINE = 7;          // [slot, type] pop value, declare it with constants[type]
+    public static final byte DEFINE_TYPED = 8;    // [slot, type] same, checking and coercing the initializer first
+    public static final byte INCREMENT = 9;       // [slot]
+    public static final byte DECREMENT = 10;      // [slot]
+
+    public static final byte ADD = 11;
+    public static final byte SUBTRACT = 12;
+    public static final byte MULTIPLY = 13;
+    public static final byte DIVIDE = 14;
+    public static final byte MODULO = 15;
+    public static final byte NEGATE = 16;
+    public static final byte NOT = 17;
+
+    public static final byte GREATER = 18;
+    public static final byte GREATER_EQUAL = 19;
+    public static final byte LESS = 20;
+    public static final byte LESS_EQUAL = 21;
+    public static final byte EQUAL = 22;
+    public static final byte NOT_EQUAL = 23;
+    public static final byte CONCAT = 24;
+    public static final byte NEXT_LINE = 25;
+
+    public static final byte JUMP = 26;           // [offset] forward
+    public static final byte JUMP_IF_FALSE = 27;  // [offset] forward, condition stays on the stack
+    public static final byte LOOP = 28;           // [offset] backward
+    public static final byte PRINT = 29;
+    public static final byte INPUT = 30;          // [index]  constants[index] is the Compiler.InputTarget
+    public static final byte RETURN = 31;
+    public static final byte SET_UNCHECKED = 32;  // [slot]   SET for assignments the TypeChecker proved
+    public static final byte BUILD_STRING = 33;   // [count]  pop count values, push them joined as by &
+    public static final byte PRINT_ALL = 34;      // [count]  pop count values and print them in order
+}
@@ -0,0 +1,244 @@
+package CodeGenerator;
+
+import LexicalAnalyzer.ExecutionContext;
+import LexicalAnalyzer.Token;
+import SematicAnalyzer.InputReader;
+import SematicAnalyzer.Operations;
+import SematicAnalyzer.OutputSink;
+import SyntaxAnalyzer.Stmt;
+import Utility.RuntimeError;
+
+import java.util.List;
+
+// Stack machine that executes a compiled Chunk in a single dispatch loop.
+public class VM {
+    private Object[] locals;
+    private String[] types; // declared type per slot, null until the MUGNA has run
+    private final ExecutionContext context;
+    private final InputReader input;
+    private final OutputSink output;
+
+    public VM() {
+        this(ExecutionContext.standard());
+    }
+
+    public VM(ExecutionContext context) {
+        this.context = context;
+        this.input = context.input();
+        this.output = context.output();
+    }
+
+    public void interpret(List<Stmt> statements) {
+        try {
+            run(new Compiler().compile(statements));
+        } catch (RuntimeError error) {
+            context.runtimeError(error);
+        }
+    }
+
+    public void run(Chunk chunk) {
+        final byte[] code = chunk.code();
+        final Object[] constants = chunk.constants.toArray();
+        final Object[] stack = new Object[chunk.maxStack + 1];
+        final Object[] locals = this.locals = new Object[chunk.slotCount()];
+        final String[] types = this.types = new String[chunk.slotCount()];
+        int sp = 0;
+        int ip = 0;
+
+        for (;;) {
+            int at = ip;
+            byte op = code[ip++];
+            switch (op) {
+                case OpCode.CONSTANT -> {
+                    stack[sp++] = constants[readInt(code, ip)];
+                    ip += 4;
+                }
+                case OpCode.NIL -> stack[sp++] = null;
+                case OpCode.TRUE -> stack[sp++] = Boolean.TRUE;
+                case OpCode.FALSE -> stack[sp++] = Boolean.FALSE;
+                case OpCode.POP -> sp--;
+                case OpCode.GET -> {
+                    int slot = readInt(code, ip);
+                    ip += 4;
+                    if (types[slot] == null) throw undefined(chunk.tokenAt(at));
+                    stack[sp++] = locals[slot];
+                }
+                case OpCode.SET -> {
+                    int slot = readInt(code, ip);
+                    ip += 4;
+                    String type = types[slot];
+                    if (type == null) throw Operations.unknownType(chunk.slotNames.get(slot));
+                    Object value = stack[sp - 1];
+                    if (value != null) Operations.checkAssignable(chunk.tokenAt(at), type, value, output);
+                    locals[slot] = value;
+                }
+                case OpCode.SET_UNCHECKED -> {
+                    int slot = readInt(code, ip);
+                    ip += 4;
+                    if (types[slot] == null) throw Operations.unknownType(chunk.slotNames.get(slot));
+                    locals[slot] = stack[sp - 1];
+                }
+                case OpCode.DEFINE, OpCode.DEFINE_TYPED -> {
+                    int slot = readInt(code, ip);
+                    String type = (String) constants[readInt(code, ip + 4)];
+                    ip += 8;
+                    Object value = stack[--sp];
+                    if (op == OpCode.DEFINE_TYPED) value = Operations.declare(chunk.tokenAt(at), type, value);
+                    locals[slot] = value;
+                    types[slot] = type;
+                }
+                case OpCode.INCREMENT, OpCode.DECREMENT -> {
+                    int slot = readInt(code, ip);
+                    ip += 4;
+                    if (types[slot] == null) throw undefined(chunk.tokenAt(at));
+                    if (!(locals[slot] instanceof Double)) {
+                        throw new RuntimeError(chunk.tokenAt(at),
+                                op == OpCode.INCREMENT ? "Numbers lang ma increment." : "Numbers lang ma decrement.");
+                    }
+                    double value = (Double) locals[slot] + (op == OpCode.INCREMENT ? 1 : -1);
+                    locals[slot] = value;
+                    stack[sp++] = locals[slot];
+                }
+                case OpCode.ADD -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left + (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.SUBTRACT -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left - (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.MULTIPLY -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left * (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.DIVIDE -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left / (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.GREATER -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left > (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.GREATER_EQUAL -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left >= (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.LESS -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left < (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.LESS_EQUAL -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (Double) left <= (Double) right;
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.MODULO -> {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (left instanceof Double && right instanceof Double) {
+                        stack[sp - 1] = (double) Math.floorMod(((Double) left).intValue(), ((Double) right).intValue());
+                    } else {
+                        stack[sp - 1] = Operations.binary(chunk.tokenAt(at), left, right);
+                    }
+                }
+                case OpCode.EQUAL, OpCode.NOT_EQUAL, OpCode.CONCAT, OpCode.NEXT_LINE -> {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = Operations.binary(chunk.tokenAt(at), stack[sp - 1], right);
+                }
+                case OpCode.NEGATE -> stack[sp - 1] = Operations.negate(chunk.tokenAt(at), stack[sp - 1]);
+                case OpCode.NOT -> stack[sp - 1] = !Operations.isTruthy(stack[sp - 1]);
+                case OpCode.JUMP -> ip += readInt(code, ip) + 4;
+                case OpCode.JUMP_IF_FALSE -> {
+                    Object condition = stack[sp - 1];
+                    if (condition == Boolean.TRUE || (condition != Boolean.FALSE && Operations.isTruthy(condition))) {
+                        ip += 4;
+                    } else {
+                        ip += readInt(code, ip) + 4;
+                    }
+                }
+                case OpCode.LOOP -> ip = ip + 4 - readInt(code, ip);
+                case OpCode.PRINT -> output.print(stack[--sp]);
+                case OpCode.BUILD_STRING -> {
+                    int count = readInt(code, ip);
+                    ip += 4;
+                    sp -= count;
+                    stack[sp] = Operations.concat(stack, sp, sp + count);
+                    sp++;
+                }
+                case OpCode.PRINT_ALL -> {
+                    int count = readInt(code, ip);
+                    ip += 4;
+                    sp -= count;
+                    output.print(stack, sp, sp + count);
+                }
+                case OpCode.INPUT -> {
+                    input((Compiler.InputTarget) constants[readInt(code, ip)], chunk);
+                    ip += 4;
+                }
+                case OpCode.RETURN -> {
+                    return;
+                }
+                default -> throw new IllegalStateException("Unknown opcode " + op + " at " + at);
+            }
+        }
+    }
+
+    private void input(Compiler.InputTarget target, Chunk chunk) {
+        input.read(target.names, output);
+
+        for (int i = 0; i < target.slots.length; i++) {
+            Token varName = target.names.get(i);
+            int slot = target.slots[i];
+            if (types[slot] == null) throw undefined(varName);
+            locals[slot] = input.value(i, varName, types[slot], locals[slot]);
+        }
+    }
+
+    private static RuntimeError undefined(Token name) {
+        return new RuntimeError(name, "Unsa ni sya '" + name.getLexeme() + "'?");
+    }
+
+    private static int readInt(byte[] code, int offset) {
+        return (code[offset] << 24) | ((code[offset + 1] & 0xff) << 16)
+                | ((code[offset + 2] & 0xff) << 8) | (code[offset + 3] & 0xff);
+    }
+}
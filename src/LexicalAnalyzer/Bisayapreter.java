@@ -1,7 +1,14 @@
 package LexicalAnalyzer;
 
-import SematicAnalyzer.Interpreter;
+import CodeGenerator.JitCompiler;
+import SematicAnalyzer.ClosureInterpreter;
+import SematicAnalyzer.OutputSink;
+import SematicAnalyzer.Resolver;
+import SematicAnalyzer.TypeChecker;
+import SyntaxAnalyzer.AstPrinter;
+import SyntaxAnalyzer.Optimizer;
 import SyntaxAnalyzer.Parser;
+import SyntaxAnalyzer.ProgramCache;
 import SyntaxAnalyzer.Stmt;
 import Utility.RuntimeError;
 
@@ -9,34 +16,118 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 
+// The command line driver. Everything a single run reads is in its Options
+// and everything it changes lives in its ExecutionContext, so run() may be
+// called from several threads at once with different contexts.
 public class Bisayapreter {
-    private static final Interpreter interpreter = new Interpreter();
-    public static boolean hadError = false;
-    public static boolean hadRuntimeError = false;
+    // Execution engines selectable with --engine, for A/B comparison.
+    public enum Engine { TREE, CLOSURE, VM, JIT }
+
+    private static final long CACHE_BYTES = 64L * 1024 * 1024;
+
+    // How to run a script, as given on the command line.
+    public static final class Options {
+        public Engine engine = Engine.TREE;
+        public boolean optimize = true;
+        public boolean dumpAst = false;
+        public boolean mapSource = true;
+        public boolean parallelLex = false;
+        // Where compiled programs are cached; null, the default, for no cache.
+        public Path cacheDirectory = null;
+    }
 
     public static void main(String[] args) throws IOException {
-        if (args.length > 1) {
-            System.out.println("Usage: jlox [script]");
-            System.exit(64);
-        } else if (args.length == 1) {
-            runFile(args[0]);
+        Options options = new Options();
+        String script = null;
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                if (!parseOption(arg, options)) usage();
+            } else if (script == null) {
+                script = arg;
+            } else {
+                usage();
+            }
+        }
+
+        if (script != null) {
+            runFile(script, options);
         } else {
-            runPrompt();
+            runPrompt(options);
         }
     }
 
-    private static void runFile(String path) throws IOException {
-        byte[] bytes = Files.readAllBytes((Paths.get(path)));
-        run(new String(bytes, Charset.defaultCharset()));
+    private static boolean parseOption(String option, Options options) {
+        if (option.startsWith("--engine=")) {
+            try {
+                options.engine = Engine.valueOf(option.substring("--engine=".length()).toUpperCase());
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        if (option.startsWith("--cache-dir=")) {
+            options.cacheDirectory = Paths.get(option.substring("--cache-dir=".length()));
+            return true;
+        }
+        switch (option) {
+            case "--no-optimize" -> options.optimize = false;
+            case "--dump-ast" -> options.dumpAst = true;
+            case "--no-mmap" -> options.mapSource = false;
+            case "--parallel-lex" -> options.parallelLex = true;
+            case "--cache" -> {
+                if (options.cacheDirectory == null) {
+                    options.cacheDirectory = Paths.get(System.getProperty("user.home"), ".bisayapp", "cache");
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --cache keeps compiled programs in ~/.bisayapp/cache, or in DIR with
+    // --cache-dir=DIR, up to 64 MB. A cache that cannot be read or written
+    // only costs the time saved; the script still runs.
+    private static void usage() {
+        System.out.println("Usage: bisayapp [--engine=tree|closure|vm|jit] [--no-optimize] [--dump-ast] [--no-mmap] [--parallel-lex] [--cache] [--cache-dir=DIR] [script]");
+        System.exit(64);
+    }
+
+    private static void runFile(String path, Options options) throws IOException {
+        int status = run(Paths.get(path), options, ExecutionContext.standard());
 
         // Indicate an error in the exit code
-        if(hadError) System.exit(65);
-        if(hadRuntimeError) System.exit(70);
+        if (status != 0) System.exit(status);
+    }
+
+    // Compiles and runs a script in the given context. Returns the exit
+    // status: 0, 65 after a compile error or 70 after a runtime error.
+    public static int run(Path file, Options options, ExecutionContext context) throws IOException {
+        Charset charset = Charset.defaultCharset();
+
+        // A program compiled before from the same source skips straight to running.
+        ProgramCache cache = options.cacheDirectory == null ? null : new ProgramCache(options.cacheDirectory, CACHE_BYTES);
+        String key = cache == null ? null : cache.key(file, charset, options.optimize ? "optimize" : "");
+        List<Stmt> statements = cache == null ? null : cache.load(key);
+
+        if (statements == null) {
+            statements = compile(file, charset, options, context);
+            if (statements != null && cache != null) cache.store(key, statements);
+        }
+        if (statements != null) execute(statements, options, context);
+
+        if (context.hadError()) return 65;
+        if (context.hadRuntimeError()) return 70;
+        return 0;
     }
 
       // For console input
@@ -63,7 +154,7 @@ public class Bisayapreter {
 //    }
 
     // For file input
-    private static void runPrompt() throws IOException {
+    private static void runPrompt(Options options) throws IOException {
         // Read the entire file content as a single string
         BufferedReader reader = new BufferedReader(new FileReader("src/Test/NoErrorTests/Dawat.txt"));
         StringBuilder sourceBuilder = new StringBuilder();
@@ -74,71 +165,101 @@ public class Bisayapreter {
         }
         reader.close();
 
-        run(sourceBuilder.toString());
+        ExecutionContext context = ExecutionContext.standard();
+        run(new Iskaner(sourceBuilder.toString(), context).scanBuffer(), options, context);
+    }
+
+    private static List<Stmt> compile(Path file, Charset charset, Options options, ExecutionContext context) throws IOException {
+        // Pure ASCII scripts are scanned in place from a memory mapping.
+        MappedSource mapped = options.mapSource && isAsciiCompatible(charset) ? MappedSource.open(file) : null;
+        if (mapped != null) {
+            return compile(options.parallelLex ? ParallelIskaner.scan(mapped, context)
+                    : new Iskaner(mapped, context).scanBuffer(), options, context);
+        }
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), charset)) {
+            return compile(new Iskaner(reader, context), options, context);
+        }
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void run(TokenStream tokens, Options options, ExecutionContext context) {
+        List<Stmt> statements = compile(tokens, options, context);
+        if (statements != null) execute(statements, options, context);
     }
 
-    private static void run(String source) {
-        Iskaner scanner = new Iskaner(source);
-        List<Token> tokens = scanner.scanTokens();
-        Parser parser = new Parser(tokens);
+    // Parses, resolves, checks and optimizes; null if anything was reported.
+    private static List<Stmt> compile(TokenStream tokens, Options options, ExecutionContext context) {
+        Parser parser = new Parser(tokens, context);
 
         List<Stmt> statements = null;
         try {
             statements = parser.parse();
         } catch (Parser.ParseError e) {
-            return;
+            return null;
         }
 
         // Stop if there was a syntax error
-        if(hadError) return;
+        if(context.hadError()) return null;
 
-        try {
-            interpreter.interpret(statements);
-        } catch (RuntimeError error) {
-            return;
-        }
+        new Resolver().resolve(statements);
+        new TypeChecker(context).check(statements);
 
-        if(!hadError && !hadRuntimeError) {
-            System.out.println();
-            System.out.println("------------------");
-            System.out.println("-- Program Done --");
-            System.out.println("------------------");
-        }
+        // Stop if there was a type error
+        if(context.hadError()) return null;
 
-        // Checking tokens
-//        for (Token token : tokens) {
-//            System.out.println(token);
-//        }
-    }
+        if (options.optimize) {
+            statements = new Optimizer().optimize(statements);
+            new Resolver().resolve(statements);
+            new TypeChecker(context).check(statements);
 
-    static void error(int line, String message) {
-        report(line, "", message);
-    }
-
-    private static void report(int line, String where, String message) {
-        System.err.println("[line " + line + "] Error" + where + ": " + message);
-        hadError = true;
-    }
-
-    public static void error(Token token, String message) {
-        if (token.type == TokenType.EOF) {
-            report(token.line, " at end", message);
-        } else {
-            report(token.line, " at '" + token.lexeme + "'", message);
+            // Stop if the rewritten program no longer checks
+            if (context.hadError()) return null;
         }
+        return statements;
     }
 
-    public static void runtimeError(RuntimeError error) {
-        System.err.println("[line " + error.getToken().line + "] " + error.getMessage());
-        hadRuntimeError = true;
-    }
+    private static void execute(List<Stmt> statements, Options options, ExecutionContext context) {
+        OutputSink out = context.output();
+        String newline = System.lineSeparator();
+        try {
+            if (options.dumpAst) {
+                AstPrinter printer = new AstPrinter();
+                for (Stmt statement : statements) {
+                    out.print(printer.print(statement) + newline);
+                }
+            }
 
-    public static void reportRuntimeError(RuntimeError error) {
-        if (error.getToken() != null) {
-            System.err.println("[line " + error.getToken().line + "] Error at '" +
-                    error.getToken().lexeme + "': " + error.getMessage());
-        } else {
-            System.err.println("Runtime Error: " + error.getMessage());
+            try {
+                switch (options.engine) {
+                    case TREE -> context.interpreter().interpret(statements);
+                    case CLOSURE -> new ClosureInterpreter(context).interpret(statements);
+                    case VM -> context.vm().interpret(statements);
+                    case JIT -> new JitCompiler(context).interpret(statements);
+                }
+            } finally {
+                out.flush();
+            }
+
+            if(!context.hadError() && !context.hadRuntimeError()) {
+                out.print(newline);
+                out.print("------------------" + newline);
+                out.print("-- Program Done --" + newline);
+                out.print("------------------" + newline);
+                out.flush();
+            }
+        } catch (RuntimeError error) {
+            // The engines report their own errors; this can only be the
+            // output limit, reached outside the program.
+            context.runtimeError(error);
         }
+
+        // Checking tokens
+//        for (Token token : tokens) {
+//            System.out.println(token);
+//        }
     }
 }
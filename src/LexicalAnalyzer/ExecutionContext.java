@@ -0,0 +1,104 @@
+package LexicalAnalyzer;
+
+import CodeGenerator.VM;
+import SematicAnalyzer.InputReader;
+import SematicAnalyzer.Interpreter;
+import SematicAnalyzer.OutputSink;
+import Utility.RuntimeError;
+
+import java.io.PrintStream;
+
+// Everything one program run reads, writes and records: where DAWAT reads
+// from, where IPAKITA output (with its size limit) and diagnostics go,
+// whether an error has been reported, and the tree-walking Interpreter and
+// VM, which keep their state across runs in the same context. Contexts share
+// nothing, so programs given separate contexts can run at the same time on
+// separate threads; one context is for one thread at a time.
+public final class ExecutionContext {
+    private static ExecutionContext standard;
+
+    private final InputReader input;
+    private final OutputSink output;
+    private final PrintStream diagnostics;
+    private Interpreter interpreter;
+    private VM vm;
+    private boolean hadError = false;
+    private boolean hadRuntimeError = false;
+
+    public ExecutionContext(InputReader input, OutputSink output, PrintStream diagnostics) {
+        this.input = input;
+        this.output = output;
+        this.diagnostics = diagnostics;
+    }
+
+    // Standard input, output and error, for the command line.
+    public static synchronized ExecutionContext standard() {
+        if (standard == null) standard = new ExecutionContext(InputReader.standard(), OutputSink.standard(), System.err);
+        return standard;
+    }
+
+    public InputReader input() {
+        return input;
+    }
+
+    public OutputSink output() {
+        return output;
+    }
+
+    public Interpreter interpreter() {
+        if (interpreter == null) interpreter = new Interpreter(true, this);
+        return interpreter;
+    }
+
+    public VM vm() {
+        if (vm == null) vm = new VM(this);
+        return vm;
+    }
+
+    public boolean hadError() {
+        return hadError;
+    }
+
+    public boolean hadRuntimeError() {
+        return hadRuntimeError;
+    }
+
+    void error(int line, String message) {
+        report(line, "", message);
+    }
+
+    private void report(int line, String where, String message) {
+        flushOutput();
+        diagnostics.println("[line " + line + "] Error" + where + ": " + message);
+        hadError = true;
+    }
+
+    public void error(Token token, String message) {
+        if (token.type == TokenType.EOF) {
+            report(token.line, " at end", message);
+        } else {
+            report(token.line, " at '" + token.lexeme + "'", message);
+        }
+    }
+
+    public void runtimeError(RuntimeError error) {
+        flushOutput();
+        if (error.getToken() != null) {
+            diagnostics.println("[line " + error.getToken().line + "] " + error.getMessage());
+        } else {
+            diagnostics.println("Runtime Error: " + error.getMessage());
+        }
+        hadRuntimeError = true;
+    }
+
+    // Flushes the output ahead of a diagnostic. If that reaches the output
+    // limit, the limit is reported first.
+    private void flushOutput() {
+        try {
+            output.flush();
+        } catch (RuntimeError error) {
+            diagnostics.println("Runtime Error: " + error.getMessage());
+            hadRuntimeError = true;
+        }
+    }
+}
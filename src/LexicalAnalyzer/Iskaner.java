@@ -1,20 +1,90 @@
 package LexicalAnalyzer;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class Iskaner {
-    private final String source;
-    private final List<Token> tokens = new ArrayList<>();
+// Scans tokens on demand, either straight over a CharSequence such as a
+// String or a MappedSource, or from a Reader. For a Reader only the
+// characters of the token being scanned, plus a little lookahead, are kept
+// in the buffer; start and current index into it and stay valid until the
+// next token begins.
+public class Iskaner implements TokenStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    // Exactly one of source and reader is set.
+    private final CharSequence source;
+    private final Reader reader;
+    private char[] buffer;
+    // Number of valid characters in buffer.
+    private int limit = 0;
+    private boolean exhausted = false;
+    // Scanned but not yet consumed; "++" yields two tokens at once.
+    private final ArrayDeque<Token> tokens = new ArrayDeque<>();
+    private boolean scannedEof = false;
+    private Token previous;
+    // Set while scanBuffer() runs; tokens then go here instead of to tokens.
+    private TokenBuffer output;
     private int start = 0;
     private int current = 0;
     private int line = 1;
+    // End of the scanned range of source.
+    private final int end;
+    private final ExecutionContext context;
+    // Set for a chunk of a parallel scan, which reports its errors only
+    // once its line numbers are known.
+    private List<LexError> errors;
     private static final Map<String, TokenType> keywords;
+    // The keywords as a trie over 'A'..'Z' plus one whitespace edge, walked
+    // over the source as an identifier is scanned. Node 0 means no match.
+    private static final int TRIE_WIDTH = 27;
+    private static final int TRIE_SPACE = 26;
+    private static final int TRIE_ROOT = 1;
+    private static int[] trie = new int[64 * TRIE_WIDTH];
+    private static TokenType[] trieTypes = new TokenType[64];
+    private static String[] trieWords = new String[64];
+    private static int trieSize = TRIE_ROOT + 1;
+    // Tokens that are always spelled the same share one lexeme String.
+    private static final Map<TokenType, String> spellings = new EnumMap<>(TokenType.class);
+
+    public Iskaner(CharSequence source) {
+        this(source, ExecutionContext.standard());
+    }
+
+    public Iskaner(CharSequence source, ExecutionContext context) {
+        this(source, 0, source.length(), context);
+    }
 
-    public Iskaner(String source) {
+    // Scans source[from, to) only, starting at line 1.
+    Iskaner(CharSequence source, int from, int to, ExecutionContext context) {
         this.source = source;
+        this.reader = null;
+        this.start = from;
+        this.current = from;
+        this.end = to;
+        this.context = context;
+    }
+
+    public Iskaner(Reader reader) {
+        this(reader, ExecutionContext.standard());
+    }
+
+    public Iskaner(Reader reader, ExecutionContext context) {
+        this.source = null;
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.end = Integer.MAX_VALUE;
+        this.context = context;
+    }
+
+    record LexError(int line, String message) {
     }
 
     static {
@@ -37,16 +107,120 @@ public class Iskaner {
         keywords.put("UG",TokenType.AND);
         keywords.put("O",TokenType.OR);
         keywords.put("DILI", TokenType.NOT);
+        keywords.forEach(Iskaner::addKeyword);
+
+        spellings.put(TokenType.LPAREN, "(");
+        spellings.put(TokenType.RPAREN, ")");
+        spellings.put(TokenType.LBRACE, "{");
+        spellings.put(TokenType.RBRACE, "}");
+        spellings.put(TokenType.COMMA, ",");
+        spellings.put(TokenType.QUESTION, "?");
+        spellings.put(TokenType.CONCAT, "&");
+        spellings.put(TokenType.NEXT_LINE, "$");
+        spellings.put(TokenType.COLON, ":");
+        spellings.put(TokenType.MULTIPLY, "*");
+        spellings.put(TokenType.DIVIDE, "/");
+        spellings.put(TokenType.MODULO, "%");
+        spellings.put(TokenType.PLUS, "+");
+        spellings.put(TokenType.INCREMENT, "++");
+        spellings.put(TokenType.MINUS, "-");
+        spellings.put(TokenType.ASSIGNMENT, "=");
+        spellings.put(TokenType.EQUALS, "==");
+        spellings.put(TokenType.LESS_THAN, "<");
+        spellings.put(TokenType.LESS_EQUAL, "<=");
+        spellings.put(TokenType.NOT_EQUALS, "<>");
+        spellings.put(TokenType.GREATER_THAN, ">");
+        spellings.put(TokenType.GREATER_EQUAL, ">=");
+        spellings.put(TokenType.BOOL_TRUE, "\"OO\"");
+        spellings.put(TokenType.BOOL_FALSE, "\"DILI\"");
     }
 
-    List<Token> scanTokens() {
-        while(!isAtEnd()) {
+    public List<Token> scanTokens() {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = nextToken();
+            tokens.add(token);
+        } while (token.type != TokenType.EOF);
+        return tokens;
+    }
+
+    // Lines this scanner has moved past so far.
+    int lines() {
+        return line - 1;
+    }
+
+    // Collects errors instead of reporting them; see ParallelIskaner.
+    List<LexError> deferErrors() {
+        errors = new ArrayList<>();
+        return errors;
+    }
+
+    private void error(String message) {
+        if (errors != null) {
+            errors.add(new LexError(line, message));
+        } else {
+            context.error(line, message);
+        }
+    }
+
+    // Scans the whole source at once into a TokenBuffer, which keeps the
+    // source to spell out lexemes on demand. A Reader can only be streamed.
+    public TokenBuffer scanBuffer() {
+        if (source == null) throw new IllegalStateException("A Reader source can only be streamed.");
+        output = new TokenBuffer(source);
+        while (!isAtEnd()) {
             start = current;
             scanToken();
         }
+        output.add(TokenType.EOF, current, 0, line, null);
+        TokenBuffer scanned = output;
+        output = null;
+        return scanned;
+    }
 
-        tokens.add(new Token(TokenType.EOF, "", null, line));
-        return tokens;
+    @Override
+    public Token nextToken() {
+        Token token = peek(0);
+        // EOF stays at the head so every later call returns it again.
+        if (token.type != TokenType.EOF) tokens.removeFirst();
+        previous = token;
+        return token;
+    }
+
+    @Override
+    public void skip() {
+        nextToken();
+    }
+
+    @Override
+    public Token previous() {
+        return previous;
+    }
+
+    @Override
+    public Token peek(int k) {
+        while (tokens.size() <= k && !scannedEof) {
+            if (isAtEnd()) {
+                tokens.addLast(new Token(TokenType.EOF, "", null, line));
+                scannedEof = true;
+            } else {
+                discardScanned();
+                start = current;
+                scanToken();
+            }
+        }
+        // Past the end every position is EOF.
+        return k < tokens.size() ? get(k) : tokens.peekLast();
+    }
+
+    private Token get(int k) {
+        if (k == 0) return tokens.peekFirst();
+        int i = 0;
+        for (Token token : tokens) {
+            if (i++ == k) return token;
+        }
+        return tokens.peekLast();
     }
 
     private void scanToken(){
@@ -114,7 +288,7 @@ public class Iskaner {
                 } else if (isAlpha(c)) {
                   identifier();
                 } else {
-                    Bisayapreter.error(line, "Unexpected character.");
+                    error("Unexpected character.");
                 }
                 break;
         }
@@ -122,7 +296,7 @@ public class Iskaner {
 
     private void character() {
         if (isAtEnd()) {
-            Bisayapreter.error(line, "Unclosed character literal.");
+            error("Unclosed character literal.");
             return;
         }
 
@@ -134,7 +308,7 @@ public class Iskaner {
         }
 
         if (peek() != '\'') {
-            Bisayapreter.error(line, "Unclosed or invalid character literal.");
+            error("Unclosed or invalid character literal.");
             return;
         }
 
@@ -142,7 +316,7 @@ public class Iskaner {
 
 
         if (c == '\0') {
-            Bisayapreter.error(line, "Invalid character literal.");
+            error("Invalid character literal.");
             return;
         }
 
@@ -158,13 +332,13 @@ public class Iskaner {
         }
 
         if (isAtEnd()) {
-            Bisayapreter.error(line, "Unclosed escape code. Expected ']'.");
+            error("Unclosed escape code. Expected ']'.");
             return;
         }
 
         advance(); // Consume closing ']'
 
-        String value = source.substring(bracketStart, current - 1);
+        String value = text(bracketStart, current - 1);
 
         // Special case: '[]]' should output ']'
         if (value.isEmpty() && peek() == ']') {
@@ -174,7 +348,7 @@ public class Iskaner {
         }
 
         if (value.isEmpty()) {
-            Bisayapreter.error(line, "Empty brackets [] are not allowed.");
+            error("Empty brackets [] are not allowed.");
             return;
         }
 
@@ -182,55 +356,34 @@ public class Iskaner {
     }
 
     private void identifier() {
-        while (isAlphaNumeric(peek())) advance();
-
-        String text = source.substring(start, current);
-        TokenType type = keywords.get(text);
-
-        if (text.equals("KUNG")) {
-            skipWhitespace(); // allow spaces after KUNG
-
-            int saveCurrent = current;
-            int saveStart = start;
-
-            if (matchWord("WALA")) {
-                addToken(TokenType.ELSE); //  Treat "KUNG WALA" as ELSE
-                return;
-            }
+        int node = step(TRIE_ROOT, charAt(start));
+        while (isAlphaNumeric(peek())) node = step(node, advance());
 
-            else if (matchWord("DILI")) {
-                addToken(TokenType.ELSE_IF); //  Treat "KUNG DILI" as ELSE_IF
-                return;
-            } else {
-                current = saveCurrent; // rollback if not matched
-                start = saveStart;
-            }
-
-            type = TokenType.IF; // fallback: treat as IF
-        }
+        TokenType type = node > 0 ? trieTypes[node] : null;
 
-        if(text.equals("ALANG")){
+        // KUNG and ALANG may go on to a second word: KUNG WALA, KUNG DILI,
+        // ALANG SA. Whitespace after them is consumed even when it does not.
+        int second = node > 0 ? trie[node * TRIE_WIDTH + TRIE_SPACE] : 0;
+        if (second > 0) {
             skipWhitespace();
-
-            int saveCurrent = current;
-            int saveStart = start;
-
-            if (matchWord("SA")) {
-                addToken(TokenType.FOR);
-                return;
+            int firstEnd = current;
+            int both = second;
+            while (isAlphaNumeric(peek())) both = step(both, advance());
+            if (both > 0 && trieTypes[both] != null) {
+                type = trieTypes[both];
+                node = both;
+            } else {
+                current = firstEnd;
             }
         }
 
-        if(text.equals("SAMTANG")) {
-//            int saveCurrent = current;
-//            int saveStart = start;
-//
-            addToken(TokenType.WHILE);
-            return;
-        }
-
         if (type == null) type = TokenType.IDENTIFIER;
-        addToken(type);
+        if (output != null) {
+            addToken(type, null, null);
+        } else {
+            String keyword = type == TokenType.IDENTIFIER ? null : trieWords[node];
+            addToken(type, null, keyword != null && spells(keyword) ? keyword : text(start, current));
+        }
     }
 
     private void skipWhitespace() {
@@ -240,37 +393,59 @@ public class Iskaner {
         }
     }
 
-    private boolean matchWord(String expected) {
-        int length = expected.length();
-        if (current + length > source.length()) return false;
-
-        String next = source.substring(current, current + length);
-
-        if (next.equals(expected) && isBoundary(current + length)) {
-            current += length;
-            return true;
-        }
-
-        return false;
+    // Follows character c from a keyword trie node; 0 once the text can no
+    // longer be a keyword.
+    private static int step(int node, char c) {
+        if (node == 0 || c < 'A' || c > 'Z') return 0;
+        return trie[node * TRIE_WIDTH + (c - 'A')];
     }
 
-    // Check that the next character is a boundary (end or not alphanumeric)
-    private boolean isBoundary(int index) {
-        return index >= source.length() || !isAlphaNumeric(source.charAt(index));
+    // Adds a keyword to the trie. A space stands for any run of whitespace
+    // between the words of a multi-word keyword.
+    private static void addKeyword(String word, TokenType type) {
+        int node = TRIE_ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int edge = node * TRIE_WIDTH + (c == ' ' ? TRIE_SPACE : c - 'A');
+            if (trie[edge] == 0) {
+                int next = trieSize++;
+                if (next * TRIE_WIDTH >= trie.length) {
+                    trie = Arrays.copyOf(trie, trie.length * 2);
+                    trieTypes = Arrays.copyOf(trieTypes, trieTypes.length * 2);
+                    trieWords = Arrays.copyOf(trieWords, trieWords.length * 2);
+                }
+                trie[edge] = next;
+            }
+            node = trie[edge];
+        }
+        trieTypes[node] = type;
+        trieWords[node] = word;
     }
 
     private void number() {
-        while(isDigit(peek())) advance();
+        long mantissa = charAt(start) - '0';
+        int scale = 0;
+        while(isDigit(peek())) mantissa = NumberLiteral.append(mantissa, advance());
 
         // Look for a fractional part.
         if(peek() == '.' && isDigit(peekNext())) {
             // Consume the "."
             advance();
 
-            while(isDigit(peek())) advance();
+            while(isDigit(peek())) {
+                mantissa = NumberLiteral.append(mantissa, advance());
+                scale++;
+            }
         }
 
-        addToken(TokenType.NUMBER, Double.parseDouble(source.substring(start, current)));
+        double value = NumberLiteral.exact(mantissa, scale);
+        if (Double.isNaN(value)) value = Double.parseDouble(text(start, current));
+
+        if (output != null) {
+            addToken(TokenType.NUMBER, NumberLiteral.box(value), null);
+        } else {
+            addToken(TokenType.NUMBER, NumberLiteral.box(value), text(start, current));
+        }
     }
 
     private void string() {
@@ -280,7 +455,7 @@ public class Iskaner {
         }
 
         if(isAtEnd()) {
-            Bisayapreter.error(line, "Unterminated nga string OI.");
+            error("Unterminated nga string OI.");
             return;
         }
 
@@ -288,7 +463,7 @@ public class Iskaner {
         advance();
 
         // Trim the surrounding quotes
-        String value = source.substring(start + 1, current - 1);
+        String value = text(start + 1, current - 1);
 
         if (value.equals("OO")) {
             addToken(TokenType.BOOL_TRUE, true);
@@ -303,7 +478,7 @@ public class Iskaner {
 
     private boolean match(char expected) {
         if(isAtEnd()) return false;
-        if(source.charAt(current) != expected) return false;
+        if(charAt(current) != expected) return false;
 
         current++;
         return true;
@@ -311,12 +486,12 @@ public class Iskaner {
 
     private char peek() {
         if(isAtEnd()) return '\0';
-        return source.charAt(current);
+        return charAt(current);
     }
 
     private char peekNext() {
-        if(current + 1 >= source.length()) return '\0';
-        return source.charAt(current + 1);
+        if(!isAvailable(current + 1)) return '\0';
+        return charAt(current + 1);
     }
 
     private boolean isAlpha(char c) {
@@ -332,11 +507,50 @@ public class Iskaner {
     }
 
     private boolean isAtEnd() {
-        return current >= source.length();
+        return !isAvailable(current);
     }
 
     private char advance() {
-        return source.charAt(current++);
+        isAvailable(current);
+        return charAt(current++);
+    }
+
+    private char charAt(int index) {
+        return buffer != null ? buffer[index] : source.charAt(index);
+    }
+
+    // Reads from the Reader until buffer[index] is filled in or the Reader
+    // runs out.
+    private boolean isAvailable(int index) {
+        if (source != null) return index < end;
+        while (index >= limit && !exhausted) {
+            if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            try {
+                int read = reader.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    exhausted = true;
+                } else {
+                    limit += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return index < limit;
+    }
+
+    // Drops the characters of tokens already scanned. Only called between
+    // tokens, so no index held by a scanning method is moved.
+    private void discardScanned() {
+        if (buffer == null || current < BUFFER_SIZE / 2) return;
+        System.arraycopy(buffer, current, buffer, 0, limit - current);
+        limit -= current;
+        current = 0;
+    }
+
+    private String text(int from, int to) {
+        if (buffer == null) return source.subSequence(from, to).toString();
+        return new String(buffer, from, to - from);
     }
 
     private void addToken(TokenType type) {
@@ -344,7 +558,34 @@ public class Iskaner {
     }
 
     private void addToken(TokenType type, Object literal) {
-        String text = source.substring(start, current);
-        tokens.add(new Token(type, text, literal, line));
+        if (output != null) {
+            output.add(type, start, current - start, line, literal);
+            return;
+        }
+        String spelling = spellings.get(type);
+        addToken(type, literal, spelling != null && spells(spelling) ? spelling : text(start, current));
+    }
+
+    private void addToken(TokenType type, Object literal, String lexeme) {
+        if (output != null) {
+            output.add(type, start, current - start, line, literal);
+            return;
+        }
+        tokens.addLast(new Token(type, lexeme, literal, line));
+    }
+
+    // The one lexeme every token of this type has, or null.
+    static String spelling(TokenType type) {
+        return spellings.get(type);
+    }
+
+    // Whether the current token's text is exactly the given spelling; false
+    // for PLUS after "++", whose lexeme is "++".
+    private boolean spells(String spelling) {
+        if (current - start != spelling.length()) return false;
+        for (int i = 0; i < spelling.length(); i++) {
+            if (charAt(start + i) != spelling.charAt(i)) return false;
+        }
+        return true;
     }
 }
@@ -0,0 +1,58 @@
+package LexicalAnalyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A script file memory-mapped and read as characters in place, so Iskaner can
+// scan it without first copying it onto the heap. Only pure ASCII files are
+// viewed this way, where every byte is one char in UTF-8 and the other
+// ASCII-compatible charsets.
+public final class MappedSource implements CharSequence {
+    private final ByteBuffer bytes;
+
+    private MappedSource(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    // Null when the file is too large to map or has a non-ASCII byte; the
+    // caller then decodes it through a Reader instead.
+    public static MappedSource open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) return null;
+
+            // The mapping stays valid after the channel is closed.
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int i = 0; i < size; i++) {
+                if (bytes.get(i) < 0) return null;
+            }
+            return new MappedSource(bytes);
+        }
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) bytes.get(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new MappedSource(bytes.slice(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        byte[] text = new byte[bytes.limit()];
+        bytes.get(0, text);
+        return new String(text, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,122 @@
+package LexicalAnalyzer;
+
+import java.nio.charset.StandardCharsets;
+
+// Decimal number parsing shared by Iskaner and DAWAT. Digits are gathered
+// into a long mantissa while they are read; when the mantissa and the
+// number of fraction digits are small enough, mantissa / 10^scale is a
+// single correctly rounded division of two exact doubles and equals what
+// Double.parseDouble returns. Anything else falls back to the JDK parser.
+public final class NumberLiteral {
+    // Powers of ten that are exact doubles.
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Largest mantissa a double holds exactly.
+    private static final long MAX_EXACT = 1L << 53;
+    // Past this another digit could overflow the long.
+    private static final long MAX_APPEND = Long.MAX_VALUE / 10 - 1;
+    // Literals like 0 and 1 make up most of a program's numbers.
+    private static final Double[] SMALL_INTEGERS = new Double[1024];
+
+    static {
+        for (int i = 0; i < SMALL_INTEGERS.length; i++) SMALL_INTEGERS[i] = (double) i;
+    }
+
+    private NumberLiteral() {
+    }
+
+    // The mantissa with one more digit, or -1 once it no longer fits.
+    static long append(long mantissa, char digit) {
+        if (mantissa < 0 || mantissa > MAX_APPEND) return -1;
+        return mantissa * 10 + (digit - '0');
+    }
+
+    // mantissa / 10^scale, or NaN when that would not be exact.
+    static double exact(long mantissa, int scale) {
+        if (mantissa < 0 || mantissa > MAX_EXACT || scale >= POWERS_OF_TEN.length) return Double.NaN;
+        return scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+    }
+
+    // Shares one box per small integer value.
+    static Double box(double value) {
+        int integer = (int) value;
+        if (integer == value && integer >= 0 && integer < SMALL_INTEGERS.length
+                && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0)) {
+            return SMALL_INTEGERS[integer];
+        }
+        return value;
+    }
+
+    // Same result as Double.parseDouble(text), which it falls back to for
+    // exponents, long mantissas, and anything that is not a plain decimal.
+    public static double parse(String text) {
+        int from = 0;
+        int to = text.length();
+        // Double.parseDouble trims the same way.
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+
+        boolean negative = false;
+        if (from < to && (text.charAt(from) == '-' || text.charAt(from) == '+')) {
+            negative = text.charAt(from++) == '-';
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = append(mantissa, c);
+                digits++;
+                if (point) scale++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return Double.parseDouble(text);
+            }
+        }
+
+        double value = digits > 0 ? exact(mantissa, scale) : Double.NaN;
+        if (Double.isNaN(value)) return Double.parseDouble(text);
+        return negative ? -value : value;
+    }
+
+    // parse(String) over the ASCII bytes text[from..to), so DAWAT can read a
+    // number without making a String of it first.
+    public static double parse(byte[] text, int from, int to) {
+        int start = from;
+        int end = to;
+        while (from < to && text[from] <= ' ' && text[from] >= 0) from++;
+        while (to > from && text[to - 1] <= ' ' && text[to - 1] >= 0) to--;
+
+        boolean negative = false;
+        if (from < to && (text[from] == '-' || text[from] == '+')) {
+            negative = text[from++] == '-';
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (int i = from; i < to; i++) {
+            byte c = text[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = append(mantissa, (char) c);
+                digits++;
+                if (point) scale++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return Double.parseDouble(new String(text, start, end - start, StandardCharsets.ISO_8859_1));
+            }
+        }
+
+        double value = digits > 0 ? exact(mantissa, scale) : Double.NaN;
+        if (Double.isNaN(value)) return Double.parseDouble(new String(text, start, end - start, StandardCharsets.ISO_8859_1));
+        return negative ? -value : value;
+    }
+}
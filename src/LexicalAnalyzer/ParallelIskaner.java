@@ -0,0 +1,149 @@
+package LexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Scans a large source as chunks on a ForkJoinPool and stitches the chunks
+// back together. The result has exactly the tokens, lines and errors of a
+// sequential scan.
+//
+// A chunk may only start right after a newline that the sequential scanner
+// would reach between tokens: not inside a "string", an [escape code], a
+// 'c' literal or a -- comment, and not in the whitespace that KUNG and
+// ALANG skip while looking for their second word. Each chunk counts lines
+// from 1, so its lines are shifted by the lines of the chunks before it.
+public final class ParallelIskaner {
+    // Smaller sources are not worth splitting.
+    private static final int MIN_CHUNK = 64 * 1024;
+
+    private ParallelIskaner() {
+    }
+
+    public static TokenBuffer scan(CharSequence source) {
+        return scan(source, ExecutionContext.standard());
+    }
+
+    public static TokenBuffer scan(CharSequence source, ExecutionContext context) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunks = Math.min(pool.getParallelism() * 4, source.length() / MIN_CHUNK);
+        // With one worker the split and stitch are pure overhead.
+        if (pool.getParallelism() < 2 || chunks < 2) return new Iskaner(source, context).scanBuffer();
+        return scan(source, pool, chunks, context);
+    }
+
+    static TokenBuffer scan(CharSequence source, ForkJoinPool pool, int chunks, ExecutionContext context) {
+        List<Integer> bounds = split(source, chunks);
+
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.size(); i++) {
+            int from = bounds.get(i);
+            int to = bounds.get(i + 1);
+            tasks.add(() -> new Chunk(new Iskaner(source, from, to, context)));
+        }
+
+        TokenBuffer tokens = new TokenBuffer(source);
+        int lineOffset = 0;
+        for (Future<Chunk> future : pool.invokeAll(tasks)) {
+            Chunk chunk = join(future);
+            tokens.append(chunk.tokens, lineOffset);
+            for (Iskaner.LexError error : chunk.errors) {
+                context.error(error.line() + lineOffset, error.message());
+            }
+            lineOffset += chunk.lines;
+        }
+        tokens.add(TokenType.EOF, source.length(), 0, lineOffset + 1, null);
+        return tokens;
+    }
+
+    private static final class Chunk {
+        final TokenBuffer tokens;
+        final List<Iskaner.LexError> errors;
+        final int lines;
+
+        Chunk(Iskaner scanner) {
+            this.errors = scanner.deferErrors();
+            this.tokens = scanner.scanBuffer();
+            this.lines = scanner.lines();
+        }
+    }
+
+    private static Chunk join(Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Chunk boundaries: 0, then the first safe split point at or after each
+    // multiple of length / chunks, then the end of the source.
+    private static List<Integer> split(CharSequence source, int chunks) {
+        int length = source.length();
+        int target = length / chunks;
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+
+        // Follows the scanner's view of strings, characters, escape codes and
+        // comments; everything else is at most one line long.
+        int i = 0;
+        while (i < length && bounds.size() < chunks) {
+            char c = source.charAt(i++);
+            switch (c) {
+                case '"' -> {
+                    while (i < length && source.charAt(i) != '"') i++;
+                    i++;
+                }
+                case '\'' -> {
+                    if (i < length) {
+                        char literal = source.charAt(i++);
+                        if (literal == '\\' && i < length) i++;
+                        if (i < length && source.charAt(i) == '\'') i++;
+                    }
+                }
+                case '[' -> {
+                    int open = i;
+                    while (i < length && source.charAt(i) != ']') i++;
+                    i++;
+                    // [] followed by ] is the escape code for ']'.
+                    if (i == open + 1 && i < length && source.charAt(i) == ']') i++;
+                }
+                case '-' -> {
+                    if (i < length && source.charAt(i) == '-') {
+                        while (i < length && source.charAt(i) != '\n') i++;
+                    }
+                }
+                case '\n' -> {
+                    if (i >= bounds.get(bounds.size() - 1) + target && i < length && !afterMultiWordStart(source, i - 1)) {
+                        bounds.add(i);
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        bounds.add(length);
+        return bounds;
+    }
+
+    // Whether only whitespace separates index from a preceding word that ends
+    // in KUNG or ALANG, which may still take a second word from the next line.
+    // Matching any such word, not just the keyword itself, keeps this
+    // conservative.
+    private static boolean afterMultiWordStart(CharSequence source, int index) {
+        int i = index;
+        while (i >= 0 && Character.isWhitespace(source.charAt(i))) i--;
+        return endsWith(source, i, "KUNG") || endsWith(source, i, "ALANG");
+    }
+
+    private static boolean endsWith(CharSequence source, int last, String word) {
+        int first = last - word.length() + 1;
+        if (first < 0) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (source.charAt(first + i) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+package LexicalAnalyzer;
+
+import java.util.Arrays;
+
+// Every token of a source in parallel arrays instead of one Token object
+// each. Lexemes stay in the source and literals sit in a side table; a
+// Token is only built when a caller asks for one, e.g. as the name or
+// operator of an AST node or to report an error.
+public final class TokenBuffer implements TokenStream {
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private byte[] types = new byte[1024];
+    private int[] starts = new int[1024];
+    private int[] lengths = new int[1024];
+    private int[] lines = new int[1024];
+    private int size = 0;
+
+    // Literals by token index, in the order the tokens were added.
+    private int[] literalTokens = new int[64];
+    private Object[] literals = new Object[64];
+    private int literalCount = 0;
+
+    // Index of the next token nextToken() returns.
+    private int cursor = 0;
+    private int viewIndex = -1;
+    private Token view;
+
+    TokenBuffer(CharSequence source) {
+        this.source = source;
+    }
+
+    void add(TokenType type, int start, int length, int line, Object literal) {
+        ensureCapacity(size + 1);
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        lines[size] = line;
+
+        if (literal != null) {
+            if (literalCount == literals.length) {
+                literalTokens = Arrays.copyOf(literalTokens, literalCount * 2);
+                literals = Arrays.copyOf(literals, literalCount * 2);
+            }
+            literalTokens[literalCount] = size;
+            literals[literalCount++] = literal;
+        }
+        size++;
+    }
+
+    // Adds every token of chunk but its EOF, shifted down lineOffset lines.
+    void append(TokenBuffer chunk, int lineOffset) {
+        int count = chunk.size - 1;
+        ensureCapacity(size + count);
+        System.arraycopy(chunk.types, 0, types, size, count);
+        System.arraycopy(chunk.starts, 0, starts, size, count);
+        System.arraycopy(chunk.lengths, 0, lengths, size, count);
+        for (int i = 0; i < count; i++) lines[size + i] = chunk.lines[i] + lineOffset;
+
+        // EOF has no literal, so every literal of chunk comes along.
+        int literalsAdded = chunk.literalCount;
+        if (literalCount + literalsAdded > literals.length) {
+            int capacity = Math.max(literals.length * 2, literalCount + literalsAdded);
+            literalTokens = Arrays.copyOf(literalTokens, capacity);
+            literals = Arrays.copyOf(literals, capacity);
+        }
+        for (int i = 0; i < literalsAdded; i++) literalTokens[literalCount + i] = chunk.literalTokens[i] + size;
+        System.arraycopy(chunk.literals, 0, literals, literalCount, literalsAdded);
+        literalCount += literalsAdded;
+        size += count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) return;
+        capacity = Math.max(capacity, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        return TYPES[types[index]];
+    }
+
+    public int line(int index) {
+        return lines[index];
+    }
+
+    public Object literal(int index) {
+        int found = Arrays.binarySearch(literalTokens, 0, literalCount, index);
+        return found >= 0 ? literals[found] : null;
+    }
+
+    public String lexeme(int index) {
+        String spelling = Iskaner.spelling(type(index));
+        if (spelling != null && spelling.length() == lengths[index]) return spelling;
+        return source.subSequence(starts[index], starts[index] + lengths[index]).toString();
+    }
+
+    public Token token(int index) {
+        // Parser asks for the same token more than once, e.g. previous().
+        if (index != viewIndex) {
+            view = new Token(type(index), lexeme(index), literal(index), lines[index]);
+            viewIndex = index;
+        }
+        return view;
+    }
+
+    @Override
+    public Token nextToken() {
+        Token token = peek(0);
+        skip();
+        return token;
+    }
+
+    @Override
+    public Token peek(int k) {
+        return token(position(k));
+    }
+
+    @Override
+    public TokenType peekType(int k) {
+        return type(position(k));
+    }
+
+    @Override
+    public void skip() {
+        // The last token is EOF, which is never consumed.
+        if (cursor < size - 1) cursor++;
+    }
+
+    @Override
+    public Token previous() {
+        return token(cursor - 1);
+    }
+
+    @Override
+    public Object previousLiteral() {
+        return literal(cursor - 1);
+    }
+
+    private int position(int k) {
+        return Math.min(cursor + k, size - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package LexicalAnalyzer;
+
+// Tokens pulled one at a time, so the parser can start before the whole
+// source has been scanned. Both methods return EOF again once the source is
+// exhausted.
+public interface TokenStream {
+    Token nextToken();
+
+    // The token k positions ahead without consuming it; peek(0) is the token
+    // the next call to nextToken() returns.
+    Token peek(int k);
+
+    // The methods below let a stream that does not keep Token objects, such
+    // as TokenBuffer, build one only when it is actually used.
+
+    default TokenType peekType(int k) {
+        return peek(k).getTokenType();
+    }
+
+    // Consumes a token like nextToken() without returning it.
+    void skip();
+
+    // The token consumed last.
+    Token previous();
+
+    default Object previousLiteral() {
+        return previous().getLiteral();
+    }
+}
@@ -0,0 +1,533 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.ExecutionContext;
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+import SyntaxAnalyzer.ValueType;
+import Utility.RuntimeError;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+// Execution engine that turns every resolved node into a closure once, with
+// its children, operator and slot already bound, then runs the closures.
+// A drop-in for Interpreter.interpret; the semantics are the same.
+//
+// Expressions the TypeChecker typed as NUMERO compile to ToDoubleFunction and
+// never box, mirroring Interpreter.evaluateNumber.
+public class ClosureInterpreter {
+    private interface DoubleComparison {
+        boolean test(double left, double right);
+    }
+
+    // Set by a numeric closure when a NUMERO-typed operand turned out to be null.
+    private boolean nullOperand = false;
+    private final ExecutionContext context;
+    private final InputReader input;
+    private final OutputSink output;
+
+    public ClosureInterpreter() {
+        this(ExecutionContext.standard());
+    }
+
+    public ClosureInterpreter(ExecutionContext context) {
+        this.context = context;
+        this.input = context.input();
+        this.output = context.output();
+    }
+
+    public void interpret(List<Stmt> statements) {
+        try {
+            compileBlock(statements).accept(new Environment());
+        } catch (RuntimeError error) {
+            context.runtimeError(error);
+        }
+    }
+
+    private Consumer<Environment> compileBlock(List<Stmt> statements) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<Environment>[] body = new Consumer[statements.size()];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = compile(statements.get(i));
+        }
+        if (body.length == 1) return body[0];
+        return env -> {
+            for (Consumer<Environment> statement : body) statement.accept(env);
+        };
+    }
+
+    private Consumer<Environment> compile(Stmt stmt) {
+        if (stmt instanceof Stmt.Block) return compileBlock(((Stmt.Block) stmt).statements);
+        if (stmt instanceof Stmt.Sugod) return compileBlock(((Stmt.Sugod) stmt).statements);
+        if (stmt instanceof Stmt.Expression) return compileExpressionStmt(((Stmt.Expression) stmt).expression);
+        if (stmt instanceof Stmt.Print && ((Stmt.Print) stmt).expression instanceof Expr.Concat) {
+            Function<Environment, Object[]> values = compileParts((Expr.Concat) ((Stmt.Print) stmt).expression);
+            return env -> {
+                Object[] parts = values.apply(env);
+                output.print(parts, 0, parts.length);
+            };
+        }
+        if (stmt instanceof Stmt.Print) {
+            Function<Environment, Object> value = compile(((Stmt.Print) stmt).expression);
+            return env -> output.print(value.apply(env));
+        }
+        if (stmt instanceof Stmt.VarDeclaration) return compileVarDeclaration((Stmt.VarDeclaration) stmt);
+        if (stmt instanceof Stmt.Var) return compileVar((Stmt.Var) stmt);
+        if (stmt instanceof Stmt.Input) return compileInput((Stmt.Input) stmt);
+        if (stmt instanceof Stmt.If) {
+            Stmt.If ifStmt = (Stmt.If) stmt;
+            Predicate<Environment> condition = compileCondition(ifStmt.condition);
+            Consumer<Environment> thenBranch = compile(ifStmt.thenBranch);
+            if (ifStmt.elseBranch == null) {
+                return env -> {
+                    if (condition.test(env)) thenBranch.accept(env);
+                };
+            }
+            Consumer<Environment> elseBranch = compile(ifStmt.elseBranch);
+            return env -> {
+                if (condition.test(env)) {
+                    thenBranch.accept(env);
+                } else {
+                    elseBranch.accept(env);
+                }
+            };
+        }
+        if (stmt instanceof Stmt.While) {
+            Predicate<Environment> condition = compileCondition(((Stmt.While) stmt).condition);
+            Consumer<Environment> body = compile(((Stmt.While) stmt).body);
+            return env -> {
+                while (condition.test(env)) body.accept(env);
+            };
+        }
+        if (stmt instanceof Stmt.For) {
+            Stmt.For forStmt = (Stmt.For) stmt;
+            Consumer<Environment> initializer = forStmt.initializer == null ? env -> { } : compile(forStmt.initializer);
+            Predicate<Environment> condition = compileCondition(forStmt.condition);
+            Consumer<Environment> body = compile(forStmt.body);
+            if (forStmt.increment == null) {
+                return env -> {
+                    initializer.accept(env);
+                    while (condition.test(env)) body.accept(env);
+                };
+            }
+            Consumer<Environment> increment = compileExpressionStmt(forStmt.increment);
+            return env -> {
+                initializer.accept(env);
+                while (condition.test(env)) {
+                    body.accept(env);
+                    increment.accept(env);
+                }
+            };
+        }
+        throw new IllegalStateException("Unknown statement " + stmt.getClass().getSimpleName());
+    }
+
+    private Consumer<Environment> compileExpressionStmt(Expr expr) {
+        if (expr instanceof Expr.Variable) {
+            // A bare variable only checks that it exists, like Interpreter.visitExpressionStmt.
+            Expr.Variable variable = (Expr.Variable) expr;
+            int slot = variable.slot;
+            String varName = variable.name.getLexeme();
+            return env -> {
+                if (!env.isDefined(slot)) {
+                    throw new RuntimeException("Unsa ni sya nga variable: " + varName);
+                }
+            };
+        }
+        if (expr instanceof Expr.Assign && Interpreter.isNumericAssign((Expr.Assign) expr)) {
+            ToDoubleFunction<Environment> assign = compileNumber(expr);
+            return env -> assign.applyAsDouble(env);
+        }
+
+        Function<Environment, Object> expression = compile(expr);
+        return env -> expression.apply(env);
+    }
+
+    private Consumer<Environment> compileVar(Stmt.Var stmt) {
+        int slot = stmt.slot;
+        String type = stmt.getType();
+        if (stmt.initializer == null) {
+            Token name = stmt.name;
+            return env -> env.define(slot, Operations.defaultValue(name, type), type);
+        }
+        Function<Environment, Object> initializer = compile(stmt.initializer);
+        return env -> env.define(slot, initializer.apply(env), type);
+    }
+
+    private Consumer<Environment> compileVarDeclaration(Stmt.VarDeclaration stmt) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<Environment>[] variables = new Consumer[stmt.variables.size()];
+        for (int i = 0; i < variables.length; i++) {
+            Stmt.Var var = stmt.variables.get(i);
+            int slot = var.slot;
+            String type = var.getType();
+            Token name = var.name;
+
+            if (var.initializer == null) {
+                variables[i] = env -> env.define(slot, null, type);
+            } else if (var.checked) {
+                Function<Environment, Object> initializer = compile(var.initializer);
+                variables[i] = env -> env.define(slot, initializer.apply(env), type);
+            } else {
+                Function<Environment, Object> initializer = compile(var.initializer);
+                variables[i] = env -> env.define(slot, Operations.declare(name, type, initializer.apply(env)), type);
+            }
+        }
+        if (variables.length == 1) return variables[0];
+        return env -> {
+            for (Consumer<Environment> variable : variables) variable.accept(env);
+        };
+    }
+
+    private Consumer<Environment> compileInput(Stmt.Input stmt) {
+        List<Token> variables = stmt.getVariableNames();
+        int[] slots = stmt.slots;
+        return env -> {
+            input.read(variables, output);
+
+            for (int i = 0; i < variables.size(); i++) {
+                Token varName = variables.get(i);
+                Object existing = env.get(slots[i], varName);
+                String varType = env.getType(slots[i], varName);
+                env.assign(slots[i], varName, input.value(i, varName, varType, existing));
+            }
+        };
+    }
+
+    private Function<Environment, Object> compile(Expr expr) {
+        if (expr == null) return env -> null;
+
+        if (expr instanceof Expr.Binary && Interpreter.isArithmetic((Expr.Binary) expr)) {
+            ToDoubleFunction<Environment> number = compileNumber(expr);
+            return env -> number.applyAsDouble(env);
+        }
+        if (expr instanceof Expr.Binary && Interpreter.isComparison((Expr.Binary) expr)) {
+            Predicate<Environment> comparison = compileCondition(expr);
+            return env -> comparison.test(env);
+        }
+        if (expr instanceof Expr.Assign && Interpreter.isNumericAssign((Expr.Assign) expr)) {
+            ToDoubleFunction<Environment> assign = compileNumber(expr);
+            return env -> assign.applyAsDouble(env);
+        }
+
+        if (expr instanceof Expr.Literal) {
+            Object value = ((Expr.Literal) expr).value;
+            return env -> value;
+        }
+        if (expr instanceof Expr.Grouping) return compile(((Expr.Grouping) expr).expression);
+        if (expr instanceof Expr.Variable) {
+            Expr.Variable variable = (Expr.Variable) expr;
+            int slot = variable.slot;
+            Token name = variable.name;
+            return env -> env.get(slot, name);
+        }
+        if (expr instanceof Expr.Assign) return compileAssign((Expr.Assign) expr);
+        if (expr instanceof Expr.Increment || expr instanceof Expr.Decrement) {
+            ToDoubleFunction<Environment> number = compileNumber(expr);
+            return env -> number.applyAsDouble(env);
+        }
+        if (expr instanceof Expr.Unary) {
+            Expr.Unary unary = (Expr.Unary) expr;
+            Function<Environment, Object> right = compile(unary.right);
+            Token operator = unary.operator;
+            return switch (operator.getTokenType()) {
+                case MINUS -> env -> Operations.negate(operator, right.apply(env));
+                case NOT -> env -> !Operations.isTruthy(right.apply(env));
+                default -> env -> {
+                    right.apply(env);
+                    return null;
+                };
+            };
+        }
+        if (expr instanceof Expr.Logical) {
+            Expr.Logical logical = (Expr.Logical) expr;
+            Function<Environment, Object> left = compile(logical.left);
+            Function<Environment, Object> right = compile(logical.right);
+            if (logical.operator.getTokenType() == TokenType.OR) {
+                return env -> {
+                    Object value = left.apply(env);
+                    return Operations.isTruthy(value) ? value : right.apply(env);
+                };
+            }
+            return env -> {
+                Object value = left.apply(env);
+                return !Operations.isTruthy(value) ? value : right.apply(env);
+            };
+        }
+        if (expr instanceof Expr.Binary) return compileBinary((Expr.Binary) expr);
+        if (expr instanceof Expr.Concat) {
+            Function<Environment, Object[]> values = compileParts((Expr.Concat) expr);
+            return env -> {
+                Object[] parts = values.apply(env);
+                return Operations.concat(parts, 0, parts.length);
+            };
+        }
+        throw new IllegalStateException("Unknown expression " + expr.getClass().getSimpleName());
+    }
+
+    // Evaluates every part of a Concat, in order.
+    private Function<Environment, Object[]> compileParts(Expr.Concat expr) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Function<Environment, Object>[] parts = new Function[expr.parts.size()];
+        for (int i = 0; i < parts.length; i++) parts[i] = compile(expr.parts.get(i));
+        return env -> {
+            Object[] values = new Object[parts.length];
+            for (int i = 0; i < values.length; i++) values[i] = parts[i].apply(env);
+            return values;
+        };
+    }
+
+    private Function<Environment, Object> compileAssign(Expr.Assign expr) {
+        Function<Environment, Object> value = compile(expr.value);
+        int slot = expr.slot;
+        Token name = expr.name;
+
+        // The TypeChecker already proved the value fits the declared type.
+        if (expr.checked) {
+            return env -> {
+                Object result = value.apply(env);
+                env.assign(slot, name, result);
+                return result;
+            };
+        }
+        return env -> {
+            Object result = value.apply(env);
+            String type = env.getType(slot, name);
+            if (result != null) Operations.checkAssignable(name, type, result, output);
+            env.assign(slot, name, result);
+            return result;
+        };
+    }
+
+    // Binary operators on operands with no static type: a double fast path
+    // bound to the operator, falling back to Operations.binary.
+    private Function<Environment, Object> compileBinary(Expr.Binary expr) {
+        Function<Environment, Object> left = compile(expr.left);
+        Function<Environment, Object> right = compile(expr.right);
+        Token operator = expr.operator;
+
+        return switch (operator.getTokenType()) {
+            case PLUS -> numeric(left, right, operator, (a, b) -> a + b);
+            case MINUS -> numeric(left, right, operator, (a, b) -> a - b);
+            case MULTIPLY -> numeric(left, right, operator, (a, b) -> a * b);
+            case DIVIDE -> numeric(left, right, operator, (a, b) -> a / b);
+            case MODULO -> numeric(left, right, operator, (a, b) -> Math.floorMod((int) a, (int) b));
+            case GREATER_THAN -> comparison(left, right, operator, (a, b) -> a > b);
+            case GREATER_EQUAL -> comparison(left, right, operator, (a, b) -> a >= b);
+            case LESS_THAN -> comparison(left, right, operator, (a, b) -> a < b);
+            case LESS_EQUAL -> comparison(left, right, operator, (a, b) -> a <= b);
+            case EQUALS -> env -> Operations.isEqual(left.apply(env), right.apply(env));
+            case NOT_EQUALS -> env -> !Operations.isEqual(left.apply(env), right.apply(env));
+            case CONCAT -> env -> Operations.stringify(left.apply(env)) + Operations.stringify(right.apply(env));
+            case NEXT_LINE -> env -> Operations.stringify(left.apply(env)) + "\n" + Operations.stringify(right.apply(env));
+            default -> throw new IllegalStateException("Unknown binary operator " + operator.getTokenType());
+        };
+    }
+
+    private static Function<Environment, Object> numeric(Function<Environment, Object> left,
+            Function<Environment, Object> right, Token operator, DoubleBinaryOperator operation) {
+        return env -> {
+            Object a = left.apply(env);
+            Object b = right.apply(env);
+            if (a instanceof Double && b instanceof Double) return operation.applyAsDouble((Double) a, (Double) b);
+            return Operations.binary(operator, a, b);
+        };
+    }
+
+    private static Function<Environment, Object> comparison(Function<Environment, Object> left,
+            Function<Environment, Object> right, Token operator, DoubleComparison comparison) {
+        return env -> {
+            Object a = left.apply(env);
+            Object b = right.apply(env);
+            if (a instanceof Double && b instanceof Double) return comparison.test((Double) a, (Double) b);
+            return Operations.binary(operator, a, b);
+        };
+    }
+
+    private Predicate<Environment> compileCondition(Expr expr) {
+        if (!(expr instanceof Expr.Binary) || !Interpreter.isComparison((Expr.Binary) expr)) {
+            Function<Environment, Object> condition = compile(expr);
+            return env -> Operations.isTruthy(condition.apply(env));
+        }
+
+        Expr.Binary binary = (Expr.Binary) expr;
+        ToDoubleFunction<Environment> left = compileNumber(binary.left);
+        ToDoubleFunction<Environment> right = compileNumber(binary.right);
+        Token operator = binary.operator;
+
+        return switch (operator.getTokenType()) {
+            case EQUALS -> env -> equal(left, right, env);
+            case NOT_EQUALS -> env -> !equal(left, right, env);
+            case GREATER_THAN -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a > b;
+            };
+            case GREATER_EQUAL -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a >= b;
+            };
+            case LESS_THAN -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a < b;
+            };
+            default -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a <= b;
+            };
+        };
+    }
+
+    // Same answers as Operations.isEqual, which uses Double.equals.
+    private boolean equal(ToDoubleFunction<Environment> left, ToDoubleFunction<Environment> right, Environment env) {
+        double a = left.applyAsDouble(env);
+        boolean leftNull = takeNullOperand();
+        double b = right.applyAsDouble(env);
+        boolean rightNull = takeNullOperand();
+        if (leftNull || rightNull) return leftNull == rightNull;
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    // Compiles an expression the TypeChecker typed as NUMERO to an unboxed closure.
+    private ToDoubleFunction<Environment> compileNumber(Expr expr) {
+        if (expr instanceof Expr.Literal && ((Expr.Literal) expr).value instanceof Double) {
+            double value = (Double) ((Expr.Literal) expr).value;
+            return env -> value;
+        }
+        if (expr instanceof Expr.Variable) {
+            Expr.Variable variable = (Expr.Variable) expr;
+            int slot = variable.slot;
+            Token name = variable.name;
+            return env -> {
+                if (env.holdsNumber(slot)) return env.getNumber(slot);
+                return unboxOperand(env.get(slot, name));
+            };
+        }
+        if (expr instanceof Expr.Grouping) return compileNumber(((Expr.Grouping) expr).expression);
+        if (expr instanceof Expr.Binary && Interpreter.isArithmetic((Expr.Binary) expr)) {
+            return compileArithmetic((Expr.Binary) expr);
+        }
+        if (expr instanceof Expr.Unary && expr.valueType == ValueType.NUMERO) {
+            Expr.Unary unary = (Expr.Unary) expr;
+            ToDoubleFunction<Environment> right = compileNumber(unary.right);
+            Token operator = unary.operator;
+            return env -> {
+                double value = right.applyAsDouble(env);
+                if (takeNullOperand()) throw new RuntimeError(operator, "Number dapat ang operand.");
+                return -value;
+            };
+        }
+        if (expr instanceof Expr.Increment) {
+            Expr.Increment increment = (Expr.Increment) expr;
+            return compileIncrement(increment.slot, increment.name, 1);
+        }
+        if (expr instanceof Expr.Decrement) {
+            Expr.Decrement decrement = (Expr.Decrement) expr;
+            return compileIncrement(decrement.slot, decrement.name, -1);
+        }
+        if (expr instanceof Expr.Assign && Interpreter.isNumericAssign((Expr.Assign) expr)) {
+            Expr.Assign assign = (Expr.Assign) expr;
+            ToDoubleFunction<Environment> value = compileNumber(assign.value);
+            int slot = assign.slot;
+            Token name = assign.name;
+            return env -> {
+                double result = value.applyAsDouble(env);
+                env.assignNumber(slot, name, result);
+                return result;
+            };
+        }
+
+        Function<Environment, Object> boxed = compile(expr);
+        return env -> unboxOperand(boxed.apply(env));
+    }
+
+    private ToDoubleFunction<Environment> compileArithmetic(Expr.Binary expr) {
+        ToDoubleFunction<Environment> left = compileNumber(expr.left);
+        ToDoubleFunction<Environment> right = compileNumber(expr.right);
+        Token operator = expr.operator;
+
+        return switch (operator.getTokenType()) {
+            case PLUS -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a + b;
+            };
+            case MINUS -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a - b;
+            };
+            case MULTIPLY -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a * b;
+            };
+            case DIVIDE -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return a / b;
+            };
+            default -> env -> {
+                double a = left.applyAsDouble(env);
+                boolean leftNull = takeNullOperand();
+                double b = right.applyAsDouble(env);
+                checkOperands(leftNull, operator);
+                return Math.floorMod((int) a, (int) b);
+            };
+        };
+    }
+
+    private static ToDoubleFunction<Environment> compileIncrement(int slot, Token name, int delta) {
+        return env -> {
+            if (env.holdsNumber(slot)) {
+                double newValue = env.getNumber(slot) + delta;
+                env.assignNumber(slot, name, newValue);
+                return newValue;
+            }
+
+            env.get(slot, name); // reports an undefined variable first
+            throw new RuntimeError(name, delta > 0 ? "Numbers lang ma increment." : "Numbers lang ma decrement.");
+        };
+    }
+
+    private double unboxOperand(Object value) {
+        if (value instanceof Double) return (Double) value;
+        nullOperand = true;
+        return 0;
+    }
+
+    private boolean takeNullOperand() {
+        boolean wasNull = nullOperand;
+        nullOperand = false;
+        return wasNull;
+    }
+
+    private void checkOperands(boolean leftNull, Token operator) {
+        if (takeNullOperand() || leftNull) throw Operations.operandError(operator);
+    }
+}
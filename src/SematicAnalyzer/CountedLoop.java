@@ -0,0 +1,172 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+import SyntaxAnalyzer.ValueType;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Shape of an ALANG SA that moves a NUMERO counter by a constant step toward
+// a bound the loop never changes, e.g. ALANG SA (i = 1, i <= n, i++). The
+// Interpreter keeps such a counter in a Java double instead of re-evaluating
+// the condition and increment expressions every iteration.
+final class CountedLoop {
+    // Cached for loops that do not have the shape.
+    static final CountedLoop NONE = new CountedLoop(null, -1, null, null, 0);
+
+    final Token name;
+    final int slot;
+    private final TokenType comparison;
+    final Expr bound;
+    final double step;
+
+    private CountedLoop(Token name, int slot, TokenType comparison, Expr bound, double step) {
+        this.name = name;
+        this.slot = slot;
+        this.comparison = comparison;
+        this.bound = bound;
+        this.step = step;
+    }
+
+    boolean test(double counter, double bound) {
+        return switch (comparison) {
+            case LESS_THAN -> counter < bound;
+            case LESS_EQUAL -> counter <= bound;
+            case GREATER_THAN -> counter > bound;
+            default -> counter >= bound;
+        };
+    }
+
+    static CountedLoop of(Stmt.For loop) {
+        if (!(loop.condition instanceof Expr.Binary)) return NONE;
+        Expr.Binary condition = (Expr.Binary) loop.condition;
+        if (!(condition.left instanceof Expr.Variable) || condition.left.valueType != ValueType.NUMERO) return NONE;
+        if (condition.right.valueType != ValueType.NUMERO) return NONE;
+
+        TokenType comparison = condition.operator.getTokenType();
+        switch (comparison) {
+            case LESS_THAN, LESS_EQUAL, GREATER_THAN, GREATER_EQUAL -> { }
+            default -> {
+                return NONE;
+            }
+        }
+
+        Expr.Variable counter = (Expr.Variable) condition.left;
+        Double step = step(loop.increment, counter.slot);
+        if (step == null) return NONE;
+
+        Set<Integer> boundSlots = new HashSet<>();
+        if (!isInvariant(condition.right, boundSlots)) return NONE;
+
+        Set<Integer> written = new HashSet<>();
+        collectWrites(loop.body, written);
+        if (written.contains(counter.slot)) return NONE;
+        for (int slot : boundSlots) {
+            if (written.contains(slot) || slot == counter.slot) return NONE;
+        }
+
+        return new CountedLoop(counter.name, counter.slot, comparison, condition.right, step);
+    }
+
+    // The constant the increment adds to the counter: i++ (parsed as
+    // i = i++), i--, or i = i + k / i = i - k for a NUMERO literal k.
+    private static Double step(Expr increment, int slot) {
+        if (increment instanceof Expr.Increment && ((Expr.Increment) increment).slot == slot) return 1.0;
+        if (increment instanceof Expr.Decrement && ((Expr.Decrement) increment).slot == slot) return -1.0;
+        if (!(increment instanceof Expr.Assign)) return null;
+
+        Expr.Assign assign = (Expr.Assign) increment;
+        if (assign.slot != slot || !assign.checked) return null;
+        if (assign.value instanceof Expr.Increment || assign.value instanceof Expr.Decrement) {
+            return step(assign.value, slot);
+        }
+        if (!(assign.value instanceof Expr.Binary)) return null;
+
+        Expr.Binary binary = (Expr.Binary) assign.value;
+        if (!(binary.left instanceof Expr.Variable) || ((Expr.Variable) binary.left).slot != slot) return null;
+        if (!(binary.right instanceof Expr.Literal) || !(((Expr.Literal) binary.right).value instanceof Double)) {
+            return null;
+        }
+        double amount = (Double) ((Expr.Literal) binary.right).value;
+        return switch (binary.operator.getTokenType()) {
+            case PLUS -> amount;
+            case MINUS -> -amount;
+            default -> null;
+        };
+    }
+
+    // Side-effect-free NUMERO expressions; records the variables they read.
+    private static boolean isInvariant(Expr expr, Set<Integer> slots) {
+        if (expr instanceof Expr.Literal) return true;
+        if (expr instanceof Expr.Variable) {
+            slots.add(((Expr.Variable) expr).slot);
+            return true;
+        }
+        if (expr instanceof Expr.Grouping) return isInvariant(((Expr.Grouping) expr).expression, slots);
+        if (expr instanceof Expr.Unary) return isInvariant(((Expr.Unary) expr).right, slots);
+        if (expr instanceof Expr.Binary) {
+            return isInvariant(((Expr.Binary) expr).left, slots) && isInvariant(((Expr.Binary) expr).right, slots);
+        }
+        return false;
+    }
+
+    private static void collectWrites(Stmt stmt, Set<Integer> slots) {
+        if (stmt instanceof Stmt.Block) {
+            collectWrites(((Stmt.Block) stmt).statements, slots);
+        } else if (stmt instanceof Stmt.Sugod) {
+            collectWrites(((Stmt.Sugod) stmt).statements, slots);
+        } else if (stmt instanceof Stmt.Expression) {
+            collectWrites(((Stmt.Expression) stmt).expression, slots);
+        } else if (stmt instanceof Stmt.Print) {
+            collectWrites(((Stmt.Print) stmt).expression, slots);
+        } else if (stmt instanceof Stmt.VarDeclaration) {
+            for (Stmt.Var var : ((Stmt.VarDeclaration) stmt).variables) collectWrites(var, slots);
+        } else if (stmt instanceof Stmt.Var) {
+            slots.add(((Stmt.Var) stmt).slot);
+            collectWrites(((Stmt.Var) stmt).initializer, slots);
+        } else if (stmt instanceof Stmt.Input) {
+            for (int slot : ((Stmt.Input) stmt).slots) slots.add(slot);
+        } else if (stmt instanceof Stmt.If) {
+            collectWrites(((Stmt.If) stmt).condition, slots);
+            collectWrites(((Stmt.If) stmt).thenBranch, slots);
+            collectWrites(((Stmt.If) stmt).elseBranch, slots);
+        } else if (stmt instanceof Stmt.While) {
+            collectWrites(((Stmt.While) stmt).condition, slots);
+            collectWrites(((Stmt.While) stmt).body, slots);
+        } else if (stmt instanceof Stmt.For) {
+            collectWrites(((Stmt.For) stmt).initializer, slots);
+            collectWrites(((Stmt.For) stmt).condition, slots);
+            collectWrites(((Stmt.For) stmt).increment, slots);
+            collectWrites(((Stmt.For) stmt).body, slots);
+        }
+    }
+
+    private static void collectWrites(List<Stmt> statements, Set<Integer> slots) {
+        for (Stmt statement : statements) collectWrites(statement, slots);
+    }
+
+    private static void collectWrites(Expr expr, Set<Integer> slots) {
+        if (expr instanceof Expr.Assign) {
+            slots.add(((Expr.Assign) expr).slot);
+            collectWrites(((Expr.Assign) expr).value, slots);
+        } else if (expr instanceof Expr.Increment) {
+            slots.add(((Expr.Increment) expr).slot);
+        } else if (expr instanceof Expr.Decrement) {
+            slots.add(((Expr.Decrement) expr).slot);
+        } else if (expr instanceof Expr.Binary) {
+            collectWrites(((Expr.Binary) expr).left, slots);
+            collectWrites(((Expr.Binary) expr).right, slots);
+        } else if (expr instanceof Expr.Logical) {
+            collectWrites(((Expr.Logical) expr).left, slots);
+            collectWrites(((Expr.Logical) expr).right, slots);
+        } else if (expr instanceof Expr.Grouping) {
+            collectWrites(((Expr.Grouping) expr).expression, slots);
+        } else if (expr instanceof Expr.Unary) {
+            collectWrites(((Expr.Unary) expr).right, slots);
+        }
+    }
+}
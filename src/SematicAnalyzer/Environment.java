@@ -1,66 +1,99 @@
 package SematicAnalyzer;
 
 import LexicalAnalyzer.Token;
-import LexicalAnalyzer.TokenType;
 import Utility.RuntimeError;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+// Variable storage indexed by the slots the Resolver assigned.
+//
+// NUMERO and TIPIK values live unboxed in numbers[] and floats[]; values[]
+// then only holds a marker saying which array to read.
 public class Environment {
-    final Environment enclosing;
-    private final Map<String, Object> values = new HashMap<>();
-    private final Map<String, String> types = new HashMap<>();
+    private static final Object UNDEFINED = new Object();
+    private static final Object NUMBER = new Object();
+    private static final Object FLOAT = new Object();
 
-    Environment() {
-        enclosing = null;
-    }
-
-    Environment(Environment enclosing) {
-        this.enclosing = enclosing;
-    }
+    private Object[] values = new Object[0];
+    private double[] numbers = new double[0];
+    private float[] floats = new float[0];
+    private String[] types = new String[0];
 
-    Object get(Token name) {
-        if (values.containsKey(name.getLexeme())) {
-            return values.get(name.getLexeme());
+    Object get(int slot, Token name) {
+        if (slot < values.length && values[slot] != UNDEFINED) {
+            Object value = values[slot];
+            if (value == NUMBER) return numbers[slot];
+            if (value == FLOAT) return floats[slot];
+            return value;
         }
 
-        if(enclosing != null) return enclosing.get(name);
-
         throw new RuntimeError(name, "Unsa ni sya '" + name.getLexeme() + "'?");
     }
 
-    void assign(Token name, Object value) {
-        if (values.containsKey(name.getLexeme())) {
-            values.put(name.getLexeme(), value);
+    // Whether the slot currently holds a NUMERO value, readable with getNumber.
+    boolean holdsNumber(int slot) {
+        return slot < values.length && values[slot] == NUMBER;
+    }
+
+    double getNumber(int slot) {
+        return numbers[slot];
+    }
+
+    void assign(int slot, Token name, Object value) {
+        if (slot < values.length && values[slot] != UNDEFINED) {
+            store(slot, value);
             return;
         }
 
-        if(enclosing != null) {
-            enclosing.assign(name, value);
+        throw new RuntimeError(name, "Unsa ni sya '" + name.getLexeme() + "'.");
+    }
+
+    void assignNumber(int slot, Token name, double value) {
+        if (slot < values.length && values[slot] != UNDEFINED) {
+            values[slot] = NUMBER;
+            numbers[slot] = value;
             return;
         }
 
         throw new RuntimeError(name, "Unsa ni sya '" + name.getLexeme() + "'.");
     }
 
-    void define(String name, Object value) {
-        values.put(name, value);
+    void define(int slot, Object value, String type) {
+        if (slot >= values.length) grow(slot + 1);
+        store(slot, value);
+        types[slot] = type;
     }
 
-    void define(String name, Object value, String type){
-        values.put(name, value);
-        types.put(name, type);
+    private void store(int slot, Object value) {
+        if (value instanceof Double) {
+            values[slot] = NUMBER;
+            numbers[slot] = (Double) value;
+        } else if (value instanceof Float) {
+            values[slot] = FLOAT;
+            floats[slot] = (Float) value;
+        } else {
+            values[slot] = value;
+        }
     }
 
-    String getType(String name) {
-        if (types.containsKey(name)) {
-            return types.get(name);
+    String getType(int slot, Token name) {
+        if (slot < types.length && types[slot] != null) {
+            return types[slot];
         }
-        throw new RuntimeError(new Token(TokenType.IDENTIFIER, name, null, 0), "Unsa d ay ni sya nga type '" + name + "'.");
+        throw Operations.unknownType(name.getLexeme());
+    }
+
+    boolean isDefined(int slot) {
+        return slot < values.length && values[slot] != UNDEFINED;
     }
 
-    boolean containsKey(String name) {
-        return values.containsKey(name);
+    private void grow(int minimum) {
+        int oldLength = values.length;
+        int length = Math.max(minimum, oldLength * 2);
+        values = Arrays.copyOf(values, length);
+        numbers = Arrays.copyOf(numbers, length);
+        floats = Arrays.copyOf(floats, length);
+        types = Arrays.copyOf(types, length);
+        Arrays.fill(values, oldLength, length, UNDEFINED);
     }
 }
@@ -0,0 +1,182 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.NumberLiteral;
+import LexicalAnalyzer.Token;
+import Utility.RuntimeError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Reads DAWAT lines from one buffered stream. Replaces a Scanner per DAWAT,
+// which split each line with a regex and, on piped input, dropped whatever
+// it had read ahead past the line.
+//
+// A line ends at \n, \r\n or \r, and is cut into fields at commas the way
+// String.split(",") would, trailing empty fields dropped, all on the raw
+// bytes; only fields that are not numbers become Strings. Separators are
+// found byte by byte, so the charset has to encode ASCII as itself, as
+// every default charset does.
+public final class InputReader {
+    private static final int CAPACITY = 64 * 1024;
+
+    private static InputReader standard;
+
+    private final InputStream in;
+    private final Charset charset;
+    private byte[] buffer = new byte[CAPACITY];
+    // Unread bytes are buffer[position..limit).
+    private int position = 0;
+    private int limit = 0;
+    // The last line ended with \r, so a \n right after it belongs to it.
+    private boolean skipNewline = false;
+    // Field i of the current line is buffer[starts[i]..ends[i]), trimmed.
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fields = 0;
+
+    public InputReader(InputStream in, Charset charset) {
+        this.in = in;
+        this.charset = charset;
+    }
+
+    // Shared by every engine reading standard input, so one never loses
+    // input another has buffered.
+    public static synchronized InputReader standard() {
+        if (standard == null) standard = new InputReader(System.in, Charset.defaultCharset());
+        return standard;
+    }
+
+    // Prompts on out for one DAWAT line and reads it, which must have one
+    // field per variable.
+    public void read(List<Token> variables, OutputSink out) {
+        // Prompt once for all variables
+        out.print("Unsa man ag value");
+        if(variables.size() > 1) {
+            out.print(" nila (comma-separated)");
+        }
+        out.print(" ni ( ");
+        for (Token var : variables) {
+            out.print(var.getLexeme());
+            out.print(" ");
+        }
+        out.print("): ");
+        // Everything printed so far has to be visible before we block on input.
+        out.flush();
+
+        readLine();
+        if (fields != variables.size()) {
+            throw new RuntimeError(variables.get(0), "Expected " + variables.size() + " inputs, pero nakuha kay " + fields);
+        }
+    }
+
+    // Field i of the line just read, converted like Operations.convertInput.
+    public Object value(int i, Token varName, String varType, Object existing) {
+        if (varType == null && existing == null) {
+            throw new RuntimeError(varName, "Unsa ni siya nga Variable type.");
+        }
+        // The cases where convertInput would parse a number.
+        boolean number = "NUMERO".equals(varType) || "TIPIK".equals(varType)
+                || (!"TINUOD".equals(varType) && !"LETRA".equals(varType) && existing instanceof Double);
+        if (!number) return Operations.convertInput(varName, varType, existing, field(i));
+
+        try {
+            return NumberLiteral.parse(buffer, starts[i], ends[i]);
+        } catch (NumberFormatException e) {
+            throw new RuntimeError(varName, "Dili lage ni siya mao: " + field(i));
+        }
+    }
+
+    private String field(int i) {
+        return new String(buffer, starts[i], ends[i] - starts[i], charset);
+    }
+
+    private void readLine() {
+        int end = findLineEnd();
+        int start = position;
+        if (end == limit) {
+            // The stream ended without a line terminator.
+            if (start == limit) throw new NoSuchElementException("No line found");
+            position = limit;
+        } else {
+            skipNewline = buffer[end] == '\r';
+            position = end + 1;
+        }
+        split(start, end);
+    }
+
+    // Index of the terminator of the next line, reading more as needed, or
+    // limit once the stream has ended.
+    private int findLineEnd() {
+        // Bytes past position already looked at.
+        int scanned = 0;
+        while (true) {
+            if (skipNewline && position < limit) {
+                skipNewline = false;
+                if (buffer[position] == '\n') position++;
+            }
+            for (int i = position + scanned; i < limit; i++) {
+                if (buffer[i] == '\n' || buffer[i] == '\r') return i;
+            }
+            scanned = limit - position;
+            if (!fill()) return limit;
+        }
+    }
+
+    // Moves the unread bytes to the front, growing the buffer if they fill
+    // it, and reads more. False at the end of the stream.
+    private boolean fill() {
+        int unread = limit - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, unread);
+            position = 0;
+            limit = unread;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        try {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) return false;
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void split(int start, int end) {
+        fields = 0;
+        // "".split(",") is one empty field.
+        if (start == end) {
+            addField(start, end);
+            return;
+        }
+        int kept = 0;
+        int from = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == ',') {
+                addField(from, i);
+                // String.split drops trailing empty fields; blank ones count.
+                if (i > from) kept = fields;
+                from = i + 1;
+            }
+        }
+        fields = kept;
+    }
+
+    private void addField(int from, int to) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+        }
+        // String.trim
+        while (from < to && buffer[from] <= ' ' && buffer[from] >= 0) from++;
+        while (to > from && buffer[to - 1] <= ' ' && buffer[to - 1] >= 0) to--;
+        starts[fields] = from;
+        ends[fields] = to;
+        fields++;
+    }
+}
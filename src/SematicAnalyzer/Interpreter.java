@@ -1,18 +1,51 @@
 package SematicAnalyzer;
 
-import LexicalAnalyzer.Bisayapreter;
+import CodeGenerator.JitCompiler;
+import LexicalAnalyzer.ExecutionContext;
 import LexicalAnalyzer.Token;
 import LexicalAnalyzer.TokenType;
 import SyntaxAnalyzer.Expr;
 import SyntaxAnalyzer.Stmt;
+import SyntaxAnalyzer.ValueType;
 import Utility.RuntimeError;
 
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
+    // Back-edges after which a SAMTANG loop is compiled and entered mid-loop.
+    static final int OSR_THRESHOLD = 1_000;
+
     private Environment environment = new Environment();
+    private final boolean tiered;
+    private final ExecutionContext context;
+    private final InputReader input;
+    private final OutputSink output;
+    // Compiled hot loops; null values mark loops the JIT could not compile.
+    private final Map<Stmt, JitCompiler.Loop> compiledLoops = new IdentityHashMap<>();
+    private final Map<Stmt.For, CountedLoop> countedLoops = new IdentityHashMap<>();
+    // Back-edges taken so far per SAMTANG and ALANG SA, for tier-up.
+    private final Map<Stmt, int[]> backEdges = new IdentityHashMap<>();
+    // Set by evaluateNumber when a NUMERO-typed operand turned out to be null.
+    private boolean nullOperand = false;
+
+    public Interpreter() {
+        this(true);
+    }
+
+    // With tiered off, loops are never handed to the JIT.
+    public Interpreter(boolean tiered) {
+        this(tiered, ExecutionContext.standard());
+    }
+
+    public Interpreter(boolean tiered, ExecutionContext context) {
+        this.tiered = tiered;
+        this.context = context;
+        this.input = context.input();
+        this.output = context.output();
+    }
 
     @Override
     public Object visitLiteralExpr(Expr.Literal expr) {
@@ -35,10 +68,7 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
     public Object visitUnaryExpr(Expr.Unary expr) {
         Object right = evaluate(expr.right);
         return switch (expr.operator.getTokenType()) {
-            case MINUS -> {
-                checkNumberOperand(expr.operator, right);
-                yield -(double) right;
-            }
+            case MINUS -> Operations.negate(expr.operator, right);
             case NOT -> !isTruthy(right);
             default ->
                 // Unreachable.
@@ -48,68 +78,190 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
 
     @Override
     public Object visitVariableExpr(Expr.Variable expr) {
-        return environment.get(expr.name);
+        return environment.get(expr.slot, expr.name);
     }
 
-    private void checkNumberOperand(Token operator, Object operand) {
-        if (operand instanceof Double) return;
-        if (operand instanceof  Integer) return;
-        throw new RuntimeError(operator, "Number dapat ang operand.");
+    private boolean isTruthy(Object object) {
+        return Operations.isTruthy(object);
     }
 
-    private void checkNumberOperands(Token operator, Object left, Object right) {
-        if (left instanceof Double && right instanceof Double) {
-            return;
-        }
-        if (left instanceof Integer && right instanceof Integer) {
-            return;
-        }
-        throw new RuntimeError(operator, "Numbers dapat ang mga operands.");
+
+    @Override
+    public Object visitGroupingExpr(Expr.Grouping expr) {
+        return evaluate(expr.expression);
     }
 
-    private boolean isTruthy(Object object) {
-        if (object == null) return false;
-        if (object instanceof Boolean) return (boolean)object;
-        if (object instanceof String) {
-            return object.equals("OO");
+    @Override
+    public Object visitConcatExpr(Expr.Concat expr) {
+        Object[] values = evaluateParts(expr);
+        return Operations.concat(values, 0, values.length);
+    }
+
+    private Object[] evaluateParts(Expr.Concat expr) {
+        List<Expr> parts = expr.parts;
+        Object[] values = new Object[parts.size()];
+        for (int i = 0; i < values.length; i++) values[i] = evaluate(parts.get(i));
+        return values;
+    }
+
+    private Object evaluate(Expr expr) {
+        if(expr == null) return null;
+        return visit(expr);
+    }
+
+    // Evaluates an expression the TypeChecker typed as NUMERO without boxing.
+    // A null operand sets nullOperand instead of throwing, so the enclosing
+    // operator can report it with its own message after evaluating both sides.
+    private double evaluateNumber(Expr expr) {
+        switch (expr.kind) {
+            case Expr.LITERAL:
+                return (Double) ((Expr.Literal) expr).value;
+            case Expr.VARIABLE: {
+                Expr.Variable variable = (Expr.Variable) expr;
+                if (environment.holdsNumber(variable.slot)) return environment.getNumber(variable.slot);
+                return unboxOperand(environment.get(variable.slot, variable.name));
+            }
+            case Expr.GROUPING:
+                return evaluateNumber(((Expr.Grouping) expr).expression);
+            case Expr.BINARY:
+                if (isArithmetic((Expr.Binary) expr)) return arithmetic((Expr.Binary) expr);
+                break;
+            case Expr.UNARY: {
+                Expr.Unary unary = (Expr.Unary) expr;
+                if (unary.operator.getTokenType() != TokenType.MINUS) break;
+                double right = evaluateNumber(unary.right);
+                if (takeNullOperand()) throw new RuntimeError(unary.operator, "Number dapat ang operand.");
+                return -right;
+            }
+            case Expr.INCREMENT: {
+                Expr.Increment increment = (Expr.Increment) expr;
+                return increment(increment.slot, increment.name, 1);
+            }
+            case Expr.DECREMENT: {
+                Expr.Decrement decrement = (Expr.Decrement) expr;
+                return increment(decrement.slot, decrement.name, -1);
+            }
+            case Expr.ASSIGN:
+                if (isNumericAssign((Expr.Assign) expr)) return assignNumber((Expr.Assign) expr);
+                break;
+            default:
+                break;
         }
-        return true;
+        return unboxOperand(evaluate(expr));
+    }
+
+    private double unboxOperand(Object value) {
+        if (value instanceof Double) return (Double) value;
+        nullOperand = true;
+        return 0;
     }
 
-    private boolean isEqual(Object a, Object b) {
-        if (a == null && b == null) return true;
-        if (a == null) return false;
-        return a.equals(b);
+    private boolean takeNullOperand() {
+        boolean wasNull = nullOperand;
+        nullOperand = false;
+        return wasNull;
     }
 
-    private String stringify(Object object) {
-        if (object == null) return "null";
-        if (object instanceof Boolean) {
-            return (Boolean) object ? "OO" : "DILI";
+    static boolean isArithmetic(Expr.Binary expr) {
+        if (expr.left.valueType != ValueType.NUMERO || expr.right.valueType != ValueType.NUMERO) return false;
+        return switch (expr.operator.getTokenType()) {
+            case PLUS, MINUS, MULTIPLY, DIVIDE, MODULO -> true;
+            default -> false;
+        };
+    }
+
+    static boolean isComparison(Expr.Binary expr) {
+        if (expr.left.valueType != ValueType.NUMERO || expr.right.valueType != ValueType.NUMERO) return false;
+        return switch (expr.operator.getTokenType()) {
+            case GREATER_THAN, GREATER_EQUAL, LESS_THAN, LESS_EQUAL, EQUALS, NOT_EQUALS -> true;
+            default -> false;
+        };
+    }
+
+    private double arithmetic(Expr.Binary expr) {
+        double left = evaluateNumber(expr.left);
+        boolean leftNull = takeNullOperand();
+        double right = evaluateNumber(expr.right);
+        if (takeNullOperand() || leftNull) throw Operations.operandError(expr.operator);
+
+        return switch (expr.operator.getTokenType()) {
+            case PLUS -> left + right;
+            case MINUS -> left - right;
+            case MULTIPLY -> left * right;
+            case DIVIDE -> left / right;
+            default -> Math.floorMod((int) left, (int) right);
+        };
+    }
+
+    private boolean compare(Expr.Binary expr) {
+        double left = evaluateNumber(expr.left);
+        boolean leftNull = takeNullOperand();
+        double right = evaluateNumber(expr.right);
+        boolean rightNull = takeNullOperand();
+
+        TokenType operator = expr.operator.getTokenType();
+        if (operator == TokenType.EQUALS || operator == TokenType.NOT_EQUALS) {
+            // Same answers as Operations.isEqual, which uses Double.equals.
+            boolean equal = leftNull || rightNull
+                    ? leftNull == rightNull
+                    : Double.doubleToLongBits(left) == Double.doubleToLongBits(right);
+            return equal == (operator == TokenType.EQUALS);
         }
-        if (object instanceof Double) {
-            String text = object.toString();
-            if (text.endsWith(".0")) {
-                text = text.substring(0, text.length() - 2);
-            }
-            return text;
+        if (leftNull || rightNull) throw Operations.operandError(expr.operator);
+
+        return switch (operator) {
+            case GREATER_THAN -> left > right;
+            case GREATER_EQUAL -> left >= right;
+            case LESS_THAN -> left < right;
+            default -> left <= right;
+        };
+    }
+
+    private boolean evaluateCondition(Expr condition) {
+        if (condition instanceof Expr.Binary && isComparison((Expr.Binary) condition)) {
+            return compare((Expr.Binary) condition);
         }
-        return object.toString();
+        return isTruthy(evaluate(condition));
     }
 
+    // A checked NUMERO assignment whose value can never be null can store
+    // straight into the unboxed slot.
+    static boolean isNumericAssign(Expr.Assign expr) {
+        return expr.checked && expr.valueType == ValueType.NUMERO && producesNumber(expr.value);
+    }
 
-    @Override
-    public Object visitGroupingExpr(Expr.Grouping expr) {
-        return evaluate(expr.expression);
+    private static boolean producesNumber(Expr expr) {
+        if (expr instanceof Expr.Literal) return ((Expr.Literal) expr).value instanceof Double;
+        if (expr instanceof Expr.Grouping) return producesNumber(((Expr.Grouping) expr).expression);
+        if (expr instanceof Expr.Binary) return isArithmetic((Expr.Binary) expr);
+        if (expr instanceof Expr.Unary) return expr.valueType == ValueType.NUMERO;
+        return expr instanceof Expr.Increment || expr instanceof Expr.Decrement;
     }
 
-    private Object evaluate(Expr expr) {
-        if(expr == null) return null;
-        return expr.accept(this);
+    private double assignNumber(Expr.Assign expr) {
+        double value = evaluateNumber(expr.value);
+        environment.assignNumber(expr.slot, expr.name, value);
+        return value;
+    }
+
+    private double increment(int slot, Token name, int delta) {
+        if (environment.holdsNumber(slot)) {
+            double newValue = environment.getNumber(slot) + delta;
+            environment.assignNumber(slot, name, newValue);
+            return newValue;
+        }
+
+        Object value = environment.get(slot, name);
+        if (value instanceof Double) {
+            double newValue = (Double) value + delta;
+            environment.assignNumber(slot, name, newValue);
+            return newValue;
+        }
+        throw new RuntimeError(name, delta > 0 ? "Numbers lang ma increment." : "Numbers lang ma decrement.");
     }
 
     private void execute(Stmt stmt) {
-        stmt.accept(this);
+        visit(stmt);
     }
 
     void executeBlock(List<Stmt> statements, Environment environment) {
@@ -133,23 +285,32 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
 
     @Override
     public Void visitExpressionStmt(Stmt.Expression stmt) {
-        if (stmt.expression instanceof Expr.Variable) {
-            Expr.Variable variableExpr = (Expr.Variable) stmt.expression;
+        executeExpression(stmt.expression);
+        return null;
+    }
+
+    private void executeExpression(Expr expression) {
+        if (expression instanceof Expr.Variable) {
+            Expr.Variable variableExpr = (Expr.Variable) expression;
             String varName = variableExpr.name.getLexeme();  // Get the variable name (e.g., 'ctr')
 
             // Check if the variable exists in the environment
-            if (!environment.containsKey(varName)) {
+            if (!environment.isDefined(variableExpr.slot)) {
                 throw new RuntimeException("Unsa ni sya nga variable: " + varName);
             }
         }
 
-        evaluate(stmt.expression);
-        return null;
+        if (expression instanceof Expr.Assign && isNumericAssign((Expr.Assign) expression)) {
+            assignNumber((Expr.Assign) expression);
+            return;
+        }
+
+        evaluate(expression);
     }
 
     @Override
     public Void visitIfStmt(Stmt.If stmt) {
-        if (isTruthy(evaluate(stmt.condition))) {
+        if (evaluateCondition(stmt.condition)) {
             execute(stmt.thenBranch);
         } else if (stmt.elseBranch != null) {
             execute(stmt.elseBranch);
@@ -159,16 +320,103 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
 
     @Override
     public Void visitWhileStmt(Stmt.While stmt) {
-        while(isTruthy(evaluate(stmt.condition))){
+        int[] taken = backEdges(stmt);
+        while(evaluateCondition(stmt.condition)){
+            execute(stmt.body);
+            if (taken != null && ++taken[0] >= OSR_THRESHOLD) {
+                if (tierUp(stmt)) break;
+                taken[0] = 0;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitForStmt(Stmt.For stmt) {
+        if (stmt.initializer != null) execute(stmt.initializer);
+
+        CountedLoop counted = countedLoops.computeIfAbsent(stmt, CountedLoop::of);
+        if (counted != CountedLoop.NONE && runCountedLoop(stmt, counted)) return null;
+
+        int[] taken = backEdges(stmt);
+        while (evaluateCondition(stmt.condition)) {
             execute(stmt.body);
+            if (stmt.increment != null) executeExpression(stmt.increment);
+            if (taken != null && ++taken[0] >= OSR_THRESHOLD) {
+                if (tierUp(stmt)) break;
+                taken[0] = 0;
+            }
         }
         return null;
     }
 
+    // Runs a counted ALANG SA with the counter and bound kept in Java
+    // doubles. Returns false, before running anything, if the counter does
+    // not hold a NUMERO or the bound is null; the generic loop then reports it.
+    private boolean runCountedLoop(Stmt.For stmt, CountedLoop counted) {
+        if (!environment.holdsNumber(counted.slot)) return false;
+        double bound = evaluateNumber(counted.bound);
+        if (takeNullOperand()) return false;
+
+        double counter = environment.getNumber(counted.slot);
+        int[] taken = backEdges(stmt);
+        while (counted.test(counter, bound)) {
+            execute(stmt.body);
+            counter += counted.step;
+            environment.assignNumber(counted.slot, counted.name, counter);
+            if (taken != null && ++taken[0] >= OSR_THRESHOLD) {
+                if (tierUp(stmt)) break;
+                taken[0] = 0;
+            }
+        }
+        return true;
+    }
+
+    // The loop's back-edge counter, kept across entries so an inner loop
+    // tiers up too; null with tiered off.
+    private int[] backEdges(Stmt loop) {
+        return tiered ? backEdges.computeIfAbsent(loop, key -> new int[1]) : null;
+    }
+
+    // On-stack replacement: compiles the loop on first use, moves its
+    // variables into the compiled code, which picks up at the next condition
+    // check and runs the loop to completion. Returns false if the loop cannot
+    // be compiled or a variable does not hold a NUMERO right now.
+    private boolean tierUp(Stmt stmt) {
+        JitCompiler.Loop loop;
+        if (compiledLoops.containsKey(stmt)) {
+            loop = compiledLoops.get(stmt);
+        } else {
+            loop = new JitCompiler(context).compileLoop(stmt);
+            compiledLoops.put(stmt, loop);
+        }
+        if (loop == null) return false;
+
+        double[] values = new double[loop.slots.length];
+        for (int i = 0; i < values.length; i++) {
+            if (!environment.holdsNumber(loop.slots[i])) return false;
+            values[i] = environment.getNumber(loop.slots[i]);
+        }
+
+        loop.run(values, output);
+
+        for (int i = 0; i < values.length; i++) {
+            environment.assignNumber(loop.slots[i], null, values[i]);
+        }
+        return true;
+    }
+
     @Override
     public Void visitPrintStmt(Stmt.Print stmt) {
+        if (stmt.expression instanceof Expr.Concat) {
+            // Every part is evaluated before anything is printed, as when
+            // the whole string was built first.
+            Object[] values = evaluateParts((Expr.Concat) stmt.expression);
+            output.print(values, 0, values.length);
+            return null;
+        }
         Object value = evaluate(stmt.expression);
-        System.out.print(stringify(value));
+        output.print(value);
         return null;
     }
 
@@ -180,41 +428,22 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
             value = evaluate(stmt.initializer);
         } else {
             // Assign default based on declared type
-            value = switch (stmt.getType()) {
-                case "NUMERO" -> 0.0;
-                case "TIPIK" -> 0.0f;
-                case "TINUOD" -> false;
-                case "LETRA" -> '\0';
-                default -> throw new RuntimeError(stmt.name, "Unsupported variable type: " + stmt.getType());
-            };
+            value = Operations.defaultValue(stmt.name, stmt.getType());
         }
 
-        environment.define(stmt.name.getLexeme(), value, stmt.getType());
+        environment.define(stmt.slot, value, stmt.getType());
         return null;
     }
     @Override
-    public Void visitVarDeclaration(Stmt.VarDeclaration stmt) {
+    public Void visitVarDeclarationStmt(Stmt.VarDeclaration stmt) {
         for (Stmt.Var var : stmt.variables) {
             Object value = null;
 
             if (var.initializer != null) {
                 value = evaluate(var.initializer);
-
-                if (var.getType().equals("NUMERO") && !(value instanceof Double)) {
-                    throw new RuntimeError(var.name, "Variable " + var.name.getLexeme() + " kay NUMERO dapat.");
-                } else if (var.getType().equals("TIPIK")) {
-                        if (value instanceof Double) {
-                            value = ((Double) value).floatValue(); // Convert Double to Float
-                        } else if (!(value instanceof Float)) {
-                            throw new RuntimeError(var.name, "Variable " + var.name.getLexeme() + " kay TIPIK dapat.");
-                        }
-                } else if (var.getType().equals("LETRA") && !(value instanceof Character)) {
-                    throw new RuntimeError(var.name, "Variable " + var.name.getLexeme() + " kay LETRA dapat.");
-                } else if (var.getType().equals("TINUOD") && (!(value instanceof Boolean))) {
-                    throw new RuntimeError(var.name, "Variable " + var.name.getLexeme() + " kay TINUOD dapat.");
-                }
+                if (!var.checked) value = Operations.declare(var.name, var.getType(), value);
             }
-            environment.define(var.name.getLexeme(), value, var.getType());
+            environment.define(var.slot, value, var.getType());
         }
         return null;
     }
@@ -222,71 +451,17 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
     public Void visitInputStmt(Stmt.Input inputStmt) {
         List<Token> variables = inputStmt.getVariableNames();
 
-        // Prompt once for all variables
-        System.out.print("Unsa man ag value");
-        if(variables.size() > 1) {
-            System.out.print(" nila (comma-separated)");
-        }
-        System.out.print(" ni ( ");
-        for (Token var : variables) {
-            System.out.print(var.getLexeme() + " ");
-        }
-        System.out.print("): ");
-
-        Scanner scanner = new Scanner(System.in);
-        String inputLine = scanner.nextLine();
-        String[] inputs = inputLine.split(",");
-
-        if (inputs.length != variables.size()) {
-            throw new RuntimeError(variables.get(0), "Expected " + variables.size() + " inputs, pero nakuha kay " + inputs.length);
-        }
+        input.read(variables, output);
 
         for (int i = 0; i < variables.size(); i++) {
             Token varName = variables.get(i);
-            String inputValue = inputs[i].trim();
 
-            Object existing = environment.get(varName);
-            String varType = environment.getType(varName.getLexeme());
+            int slot = inputStmt.slots[i];
 
-            if (varType == null && existing == null) {
-                throw new RuntimeError(varName, "Unsa ni siya nga Variable type.");
-            }
+            Object existing = environment.get(slot, varName);
+            String varType = environment.getType(slot, varName);
 
-            try {
-                if (varType != null && (varType.equals("NUMERO") || varType.equals("TIPIK"))) {
-                    environment.assign(varName, Double.parseDouble(inputValue));
-                } else if (varType != null && varType.equals("TINUOD")) {
-                    if (inputValue.equalsIgnoreCase("OO")) {
-                        environment.assign(varName, true);
-                    } else if (inputValue.equalsIgnoreCase("DILI")) {
-                        environment.assign(varName, false);
-                    } else {
-                        throw new RuntimeError(varName, "TINUOD dapat OO o DILI ra lageh naunsa man ka.");
-                    }
-                } else if (varType != null && varType.equals("LETRA")) {
-                    if (inputValue.length() == 1) {
-                        environment.assign(varName, inputValue.charAt(0));
-                    } else {
-                        throw new RuntimeError(varName, "Expected usa ra ka LETRA.");
-                    }
-                } else if (existing instanceof Double) {
-                    environment.assign(varName, Double.parseDouble(inputValue));
-                } else if (existing instanceof Boolean) {
-                    if (inputValue.equalsIgnoreCase("OO")) {
-                        environment.assign(varName, true);
-                    } else if (inputValue.equalsIgnoreCase("DILI")) {
-                        environment.assign(varName, false);
-                    } else {
-                        throw new RuntimeError(varName, "Expected OO o DILI para sa TIPIK.");
-                    }
-                } else if (existing instanceof Character) {
-                    environment.assign(varName, inputValue.charAt(0));
-                } else {
-                    environment.assign(varName, inputValue);
-                }
-            } catch (NumberFormatException e) {
-                throw new RuntimeError(varName, "Dili lage ni siya mao: " + inputValue);
-            }
+            environment.assign(slot, varName, input.value(i, varName, varType, existing));
         }
 
         return null;
@@ -294,111 +469,40 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
 
     @Override
     public Object visitAssignExpr(Expr.Assign expr) {
-        Object value = evaluate(expr.value);
-        String type = environment.getType(expr.name.getLexeme());
+        if (isNumericAssign(expr)) return assignNumber(expr);
 
-        if (value == null) {
-            environment.assign(expr.name, null);
-            return null;
-        }
+        Object value = evaluate(expr.value);
 
-        if (type.equals("NUMERO") && !(value instanceof Double)) {
-            throw new RuntimeError(expr.name, "Expected a number for NUMERO variable.");
-        }else if(type.equals("TIPIK") && !(value instanceof Float)) {
-            System.out.println(value.getClass());
-            throw new RuntimeError(expr.name, "Expected a number for TIPIK variable.");
-        }else if(type.equals("LETRA") && !(value instanceof Character)) {
-            throw new RuntimeError(expr.name, "Expected a character for LETRA variable.");
-        }else if(type.equals("TINUOD") && !(value instanceof Boolean)) {
-            throw new RuntimeError(expr.name, "Expected a boolean for TINUOD variable.");
+        // The TypeChecker already proved the value fits the declared type.
+        if (!expr.checked) {
+            String type = environment.getType(expr.slot, expr.name);
+            if (value != null) Operations.checkAssignable(expr.name, type, value, output);
         }
 
-        environment.assign(expr.name, value);
+        environment.assign(expr.slot, expr.name, value);
         return value;
     }
 
 
     @Override
     public Object visitBinaryExpr(Expr.Binary expr) {
+        if (isArithmetic(expr)) return arithmetic(expr);
+        if (isComparison(expr)) return compare(expr);
+
         Object left = evaluate(expr.left);
         Object right = evaluate(expr.right);
 
-        switch (expr.operator.getTokenType()) {
-            case MODULO:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)(Math.floorMod(((Number)left).intValue(), ((Number)right).intValue()));
-            case MINUS:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left - (double)right;
-            case DIVIDE:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left / (double)right;
-            case MULTIPLY:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left * (double)right;
-            case PLUS:
-                if (left instanceof Double && right instanceof Double) {
-                    return (double)left + (double)right;
-                }
-                if (left instanceof String && right instanceof String) {
-                    return (String)left + (String)right;
-                }
-                if (left instanceof Character && right instanceof Character) {
-                    return (Character)left + (Character) right;
-                }
-                throw new RuntimeError(expr.operator, "Operands dapat ay duha ka numbers, strings, o characters.");
-            case GREATER_THAN:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left > (double)right;
-            case GREATER_EQUAL:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left >= (double)right;
-            case LESS_THAN:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left < (double)right;
-            case LESS_EQUAL:
-                checkNumberOperands(expr.operator, left, right);
-                return (double)left <= (double)right;
-            case NOT_EQUALS:
-                return !isEqual(left, right);
-            case EQUALS:
-                return isEqual(left, right);
-            case CONCAT:
-                return stringify(left) + stringify(right);
-            case NEXT_LINE:
-                return stringify(left) + "\n" + stringify(right);
-        }
-        // Unreachable.
-        return null;
+        return Operations.binary(expr.operator, left, right);
     }
 
     @Override
     public Object visitIncrementExpr(Expr.Increment expr) {
-        Object value = environment.get(expr.name);
-
-        if (value instanceof Double) {
-            double oldValue = (Double) value;
-            double newValue = oldValue + 1;
-            environment.assign(expr.name, newValue);
-
-            return newValue;
-        }
-        throw new RuntimeError(expr.name, "Numbers lang ma increment.");
+        return increment(expr.slot, expr.name, 1);
     }
 
     @Override
     public Object visitDecrementExpr(Expr.Decrement expr) {
-        Object value = environment.get(expr.name);
-
-        if (value instanceof Double) {
-            double oldValue = (Double) value;
-            double newValue = oldValue - 1;
-            environment.assign(expr.name, newValue);
-
-            return newValue;
-        }
-
-        throw new RuntimeError(expr.name, "Numbers lang ma decrement.");
+        return increment(expr.slot, expr.name, -1);
     }
 
     @Override
@@ -413,7 +517,7 @@ public class Interpreter implements Expr.Visitor, Stmt.Visitor<Void> {
                 execute(statement);
             }
         } catch (RuntimeError error) {
-            Bisayapreter.runtimeError(error);
+            context.runtimeError(error);
         }
     }
 
@@ -0,0 +1,82 @@
+package SematicAnalyzer;
+
+import java.nio.charset.StandardCharsets;
+
+// Writes a NUMERO the way stringify always has: Double.toString without a
+// trailing ".0". Whole numbers below 10^7, and other values in Double.toString's
+// plain range [10^-3, 10^7) with at most 15 significant digits, are written
+// digit by digit into the caller's buffer; for those the fewest decimals that
+// divide back to the same double are exactly the digits Double.toString picks.
+// Everything else (NaN, infinities, exponent notation, 16-17 digit values)
+// goes through Double.toString, whose digits before JDK 19 are not always the
+// shortest and so cannot be reproduced by a shortest-digits algorithm.
+public final class NumberFormatter {
+    // Longest result: "-2.2250738585072014E-308".
+    public static final int MAX_LENGTH = 24;
+
+    private static final double[] POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private NumberFormatter() {
+    }
+
+    public static String toString(double value) {
+        byte[] text = new byte[MAX_LENGTH];
+        int length = format(value, text, 0);
+        return new String(text, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    // Writes value as ASCII at buffer[at] and returns where it ends. The
+    // buffer needs MAX_LENGTH bytes free.
+    public static int format(double value, byte[] buffer, int at) {
+        double magnitude = Math.abs(value);
+        if (magnitude < 1e7) {
+            long whole = (long) magnitude;
+            if (whole == magnitude) {
+                // Also "-0" for negative zero.
+                if (Double.doubleToRawLongBits(value) < 0) buffer[at++] = '-';
+                return writeDigits(whole, 0, buffer, at);
+            }
+            if (magnitude >= 1e-3) {
+                for (int decimals = 1; ; decimals++) {
+                    double scaled = magnitude * POWERS[decimals];
+                    if (scaled >= 1e15) break;
+                    double digits = Math.rint(scaled);
+                    // digits < 2^53 and the power is exact, so the division
+                    // rounds exactly as parsing the decimal would.
+                    if (digits / POWERS[decimals] == magnitude) {
+                        if (value < 0) buffer[at++] = '-';
+                        return writeDigits((long) digits, decimals, buffer, at);
+                    }
+                }
+            }
+        }
+
+        String text = Double.toString(value);
+        int length = text.endsWith(".0") ? text.length() - 2 : text.length();
+        for (int i = 0; i < length; i++) buffer[at++] = (byte) text.charAt(i);
+        return at;
+    }
+
+    // digits with the last decimals of them after a decimal point, padded
+    // with zeros so there is at least one digit before it.
+    private static int writeDigits(long digits, int decimals, byte[] buffer, int at) {
+        int count = 1;
+        for (long rest = digits / 10; rest != 0; rest /= 10) count++;
+        int end = decimals == 0 ? at + count : at + Math.max(count, decimals + 1) + 1;
+
+        int position = end;
+        for (int i = 0; i < decimals; i++) {
+            buffer[--position] = (byte) ('0' + digits % 10);
+            digits /= 10;
+        }
+        if (decimals > 0) buffer[--position] = '.';
+        do {
+            buffer[--position] = (byte) ('0' + digits % 10);
+            digits /= 10;
+        } while (position > at);
+        return end;
+    }
+}
@@ -0,0 +1,223 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.NumberLiteral;
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import Utility.RuntimeError;
+
+// Runtime semantics shared by every execution engine, so the tree-walker and
+// the bytecode VM always agree on what an operator or a DAWAT input means.
+public final class Operations {
+    private Operations() {
+    }
+
+    public static Object binary(Token operator, Object left, Object right) {
+        switch (operator.getTokenType()) {
+            case MODULO:
+                checkNumberOperands(operator, left, right);
+                return (double)(Math.floorMod(((Number)left).intValue(), ((Number)right).intValue()));
+            case MINUS:
+                checkNumberOperands(operator, left, right);
+                return (double)left - (double)right;
+            case DIVIDE:
+                checkNumberOperands(operator, left, right);
+                return (double)left / (double)right;
+            case MULTIPLY:
+                checkNumberOperands(operator, left, right);
+                return (double)left * (double)right;
+            case PLUS:
+                if (left instanceof Double && right instanceof Double) {
+                    return (double)left + (double)right;
+                }
+                if (left instanceof String && right instanceof String) {
+                    return (String)left + (String)right;
+                }
+                if (left instanceof Character && right instanceof Character) {
+                    return (Character)left + (Character) right;
+                }
+                throw new RuntimeError(operator, "Operands dapat ay duha ka numbers, strings, o characters.");
+            case GREATER_THAN:
+                checkNumberOperands(operator, left, right);
+                return (double)left > (double)right;
+            case GREATER_EQUAL:
+                checkNumberOperands(operator, left, right);
+                return (double)left >= (double)right;
+            case LESS_THAN:
+                checkNumberOperands(operator, left, right);
+                return (double)left < (double)right;
+            case LESS_EQUAL:
+                checkNumberOperands(operator, left, right);
+                return (double)left <= (double)right;
+            case NOT_EQUALS:
+                return !isEqual(left, right);
+            case EQUALS:
+                return isEqual(left, right);
+            case CONCAT:
+                return stringify(left) + stringify(right);
+            case NEXT_LINE:
+                return stringify(left) + "\n" + stringify(right);
+        }
+        // Unreachable.
+        return null;
+    }
+
+    public static Object negate(Token operator, Object right) {
+        checkNumberOperand(operator, right);
+        return -(double) right;
+    }
+
+    public static void checkNumberOperand(Token operator, Object operand) {
+        if (operand instanceof Double) return;
+        if (operand instanceof  Integer) return;
+        throw new RuntimeError(operator, "Number dapat ang operand.");
+    }
+
+    public static void checkNumberOperands(Token operator, Object left, Object right) {
+        if (left instanceof Double && right instanceof Double) {
+            return;
+        }
+        if (left instanceof Integer && right instanceof Integer) {
+            return;
+        }
+        throw new RuntimeError(operator, "Numbers dapat ang mga operands.");
+    }
+
+    // Error for an arithmetic or comparison operand that is not a number.
+    public static RuntimeError operandError(Token operator) {
+        if (operator.getTokenType() == TokenType.PLUS) {
+            return new RuntimeError(operator, "Operands dapat ay duha ka numbers, strings, o characters.");
+        }
+        return new RuntimeError(operator, "Numbers dapat ang mga operands.");
+    }
+
+    public static boolean isTruthy(Object object) {
+        if (object == null) return false;
+        if (object instanceof Boolean) return (boolean)object;
+        if (object instanceof String) {
+            return object.equals("OO");
+        }
+        return true;
+    }
+
+    // The result of values[from..to) joined by &, as in an Expr.Concat, built
+    // in one pass with room for every part.
+    public static String concat(Object[] values, int from, int to) {
+        int capacity = 0;
+        for (int i = from; i < to; i++) {
+            capacity += values[i] instanceof String ? ((String) values[i]).length() : NumberFormatter.MAX_LENGTH;
+        }
+        StringBuilder builder = new StringBuilder(capacity);
+        for (int i = from; i < to; i++) {
+            Object value = values[i];
+            builder.append(value instanceof String ? (String) value : stringify(value));
+        }
+        return builder.toString();
+    }
+
+    public static boolean isEqual(Object a, Object b) {
+        if (a == null && b == null) return true;
+        if (a == null) return false;
+        return a.equals(b);
+    }
+
+    public static String stringify(Object object) {
+        if (object == null) return "null";
+        if (object instanceof Boolean) {
+            return (Boolean) object ? "OO" : "DILI";
+        }
+        if (object instanceof Double) {
+            return NumberFormatter.toString((Double) object);
+        }
+        return object.toString();
+    }
+
+    // Value of a variable declared without an initializer (visitVarStmt).
+    public static Object defaultValue(Token name, String type) {
+        return switch (type) {
+            case "NUMERO" -> 0.0;
+            case "TIPIK" -> 0.0f;
+            case "TINUOD" -> false;
+            case "LETRA" -> '\0';
+            default -> throw new RuntimeError(name, "Unsupported variable type: " + type);
+        };
+    }
+
+    // Checks an initializer against the declared type of a MUGNA variable.
+    public static Object declare(Token name, String type, Object value) {
+        if (type.equals("NUMERO") && !(value instanceof Double)) {
+            throw new RuntimeError(name, "Variable " + name.getLexeme() + " kay NUMERO dapat.");
+        } else if (type.equals("TIPIK")) {
+            if (value instanceof Double) {
+                return ((Double) value).floatValue(); // Convert Double to Float
+            } else if (!(value instanceof Float)) {
+                throw new RuntimeError(name, "Variable " + name.getLexeme() + " kay TIPIK dapat.");
+            }
+        } else if (type.equals("LETRA") && !(value instanceof Character)) {
+            throw new RuntimeError(name, "Variable " + name.getLexeme() + " kay LETRA dapat.");
+        } else if (type.equals("TINUOD") && (!(value instanceof Boolean))) {
+            throw new RuntimeError(name, "Variable " + name.getLexeme() + " kay TINUOD dapat.");
+        }
+        return value;
+    }
+
+    // Checks a non-null value against the declared type before an assignment.
+    public static void checkAssignable(Token name, String type, Object value, OutputSink out) {
+        if (type.equals("NUMERO") && !(value instanceof Double)) {
+            throw new RuntimeError(name, "Expected a number for NUMERO variable.");
+        }else if(type.equals("TIPIK") && !(value instanceof Float)) {
+            out.print(value.getClass() + System.lineSeparator());
+            throw new RuntimeError(name, "Expected a number for TIPIK variable.");
+        }else if(type.equals("LETRA") && !(value instanceof Character)) {
+            throw new RuntimeError(name, "Expected a character for LETRA variable.");
+        }else if(type.equals("TINUOD") && !(value instanceof Boolean)) {
+            throw new RuntimeError(name, "Expected a boolean for TINUOD variable.");
+        }
+    }
+
+    public static RuntimeError unknownType(String name) {
+        return new RuntimeError(new Token(TokenType.IDENTIFIER, name, null, 0), "Unsa d ay ni sya nga type '" + name + "'.");
+    }
+
+    // Converts one DAWAT field to the value stored in the variable.
+    public static Object convertInput(Token varName, String varType, Object existing, String inputValue) {
+        if (varType == null && existing == null) {
+            throw new RuntimeError(varName, "Unsa ni siya nga Variable type.");
+        }
+
+        try {
+            if (varType != null && (varType.equals("NUMERO") || varType.equals("TIPIK"))) {
+                return NumberLiteral.parse(inputValue);
+            } else if (varType != null && varType.equals("TINUOD")) {
+                if (inputValue.equalsIgnoreCase("OO")) {
+                    return true;
+                } else if (inputValue.equalsIgnoreCase("DILI")) {
+                    return false;
+                } else {
+                    throw new RuntimeError(varName, "TINUOD dapat OO o DILI ra lageh naunsa man ka.");
+                }
+            } else if (varType != null && varType.equals("LETRA")) {
+                if (inputValue.length() == 1) {
+                    return inputValue.charAt(0);
+                } else {
+                    throw new RuntimeError(varName, "Expected usa ra ka LETRA.");
+                }
+            } else if (existing instanceof Double) {
+                return NumberLiteral.parse(inputValue);
+            } else if (existing instanceof Boolean) {
+                if (inputValue.equalsIgnoreCase("OO")) {
+                    return true;
+                } else if (inputValue.equalsIgnoreCase("DILI")) {
+                    return false;
+                } else {
+                    throw new RuntimeError(varName, "Expected OO o DILI para sa TIPIK.");
+                }
+            } else if (existing instanceof Character) {
+                return inputValue.charAt(0);
+            } else {
+                return inputValue;
+            }
+        } catch (NumberFormatException e) {
+            throw new RuntimeError(varName, "Dili lage ni siya mao: " + inputValue);
+        }
+    }
+}
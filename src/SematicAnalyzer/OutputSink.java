@@ -0,0 +1,158 @@
+package SematicAnalyzer;
+
+import Utility.RuntimeError;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+// Where IPAKITA output goes. Text is encoded straight into one reusable
+// buffer and written to the channel only when the buffer fills, before a
+// DAWAT prompt, before an error is reported, and when the program ends,
+// instead of System.out's flush on every printed newline.
+//
+// A sink can be given a limit on how many bytes it writes in all. Output
+// past it is cut off, and the write that crosses it throws a RuntimeError,
+// so a program printing without end is stopped; only that first write throws.
+public final class OutputSink {
+    private static final int CAPACITY = 64 * 1024;
+
+    private static OutputSink standard;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private final CharsetEncoder encoder;
+    // ASCII characters encode to themselves, one byte each.
+    private final boolean asciiCompatible;
+    private final long limit;
+    // Bytes written to the channel so far, at most limit.
+    private long written = 0;
+    private boolean truncated = false;
+
+    public OutputSink(WritableByteChannel channel, int capacity, Charset charset) {
+        this(channel, capacity, charset, Long.MAX_VALUE);
+    }
+
+    public OutputSink(WritableByteChannel channel, int capacity, Charset charset, long limit) {
+        this.channel = channel;
+        this.limit = limit;
+        this.buffer = ByteBuffer.allocate(capacity);
+        this.bytes = buffer.array();
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiCompatible = charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    // Standard output, shared by everything that prints there.
+    public static synchronized OutputSink standard() {
+        if (standard == null) {
+            standard = new OutputSink(new FileOutputStream(FileDescriptor.out).getChannel(), CAPACITY,
+                    standardCharset());
+        }
+        return standard;
+    }
+
+    public void print(String text) {
+        if (!asciiCompatible) {
+            encode(text, 0);
+            return;
+        }
+
+        int length = text.length();
+        int position = buffer.position();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                buffer.position(position);
+                encode(text, i);
+                return;
+            }
+            if (position == bytes.length) {
+                buffer.position(position);
+                drain();
+                position = 0;
+            }
+            bytes[position++] = (byte) c;
+        }
+        buffer.position(position);
+    }
+
+    // Same text as print(Operations.stringify(value)).
+    public void print(Object value) {
+        if (value instanceof Double) {
+            print((double) (Double) value);
+        } else {
+            print(Operations.stringify(value));
+        }
+    }
+
+    // Same text as print(Operations.concat(values, from, to)), without
+    // building it.
+    public void print(Object[] values, int from, int to) {
+        for (int i = from; i < to; i++) print(values[i]);
+    }
+
+    // A NUMERO, formatted straight into the buffer without a String.
+    public void print(double value) {
+        if (!asciiCompatible) {
+            encode(NumberFormatter.toString(value), 0);
+            return;
+        }
+        if (buffer.remaining() < NumberFormatter.MAX_LENGTH) drain();
+        buffer.position(NumberFormatter.format(value, bytes, buffer.position()));
+    }
+
+    public void flush() {
+        if (buffer.position() > 0) drain();
+    }
+
+    private void encode(String text, int from) {
+        CharBuffer chars = CharBuffer.wrap(text, from, text.length());
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) drain();
+        while (encoder.flush(buffer) == CoderResult.OVERFLOW) drain();
+    }
+
+    private void drain() {
+        buffer.flip();
+        boolean crossed = false;
+        if (buffer.remaining() > limit - written) {
+            buffer.limit(buffer.position() + (int) (limit - written));
+            crossed = !truncated;
+            truncated = true;
+        }
+        written += buffer.remaining();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            // Dropped, as System.out would.
+        }
+        buffer.clear();
+        if (crossed) throw new RuntimeError(null, "Sobra na ang output: limit kay " + limit + " bytes.");
+    }
+
+    // The charset System.out encodes with.
+    private static Charset standardCharset() {
+        String name = System.getProperty("sun.stdout.encoding");
+        if (name != null) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                // Fall through to the default, as PrintStream does.
+            }
+        }
+        return Charset.defaultCharset();
+    }
+}
@@ -0,0 +1,173 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.Token;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds every variable reference to a slot before execution, so the
+// environment can be plain arrays instead of a name-keyed map.
+public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+    // The program has a single scope: PUNDOK blocks and SUGOD share the
+    // program's environment (see Interpreter.visitBlockStmt), so they do not
+    // open a scope of their own.
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public void resolve(List<Stmt> statements) {
+        for (Stmt statement : statements) {
+            resolve(statement);
+        }
+    }
+
+    private void resolve(Stmt stmt) {
+        if (stmt != null) stmt.accept(this);
+    }
+
+    private void resolve(Expr expr) {
+        if (expr != null) expr.accept(this);
+    }
+
+    // Names that are never declared still get a slot, which stays undefined
+    // and fails at runtime exactly like the old name lookup did.
+    private int slot(Token name) {
+        return slots.computeIfAbsent(name.getLexeme(), key -> slots.size());
+    }
+
+    @Override
+    public Void visitVariableExpr(Expr.Variable expr) {
+        expr.slot = slot(expr.name);
+        return null;
+    }
+
+    @Override
+    public Void visitAssignExpr(Expr.Assign expr) {
+        resolve(expr.value);
+        expr.slot = slot(expr.name);
+        return null;
+    }
+
+    @Override
+    public Void visitIncrementExpr(Expr.Increment expr) {
+        expr.slot = slot(expr.name);
+        return null;
+    }
+
+    @Override
+    public Void visitDecrementExpr(Expr.Decrement expr) {
+        expr.slot = slot(expr.name);
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryExpr(Expr.Binary expr) {
+        resolve(expr.left);
+        resolve(expr.right);
+        return null;
+    }
+
+    @Override
+    public Void visitGroupingExpr(Expr.Grouping expr) {
+        resolve(expr.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitConcatExpr(Expr.Concat expr) {
+        for (Expr part : expr.parts) resolve(part);
+        return null;
+    }
+
+    @Override
+    public Void visitLiteralExpr(Expr.Literal expr) {
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryExpr(Expr.Unary expr) {
+        resolve(expr.right);
+        return null;
+    }
+
+    @Override
+    public Void visitLogicalExpr(Expr.Logical expr) {
+        resolve(expr.left);
+        resolve(expr.right);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStmt(Stmt.Block stmt) {
+        resolve(stmt.statements);
+        return null;
+    }
+
+    @Override
+    public Void visitSugodStmt(Stmt.Sugod stmt) {
+        resolve(stmt.statements);
+        return null;
+    }
+
+    @Override
+    public Void visitExpressionStmt(Stmt.Expression stmt) {
+        resolve(stmt.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitPrintStmt(Stmt.Print stmt) {
+        resolve(stmt.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitVarStmt(Stmt.Var stmt) {
+        resolve(stmt.initializer);
+        stmt.slot = slot(stmt.name);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDeclarationStmt(Stmt.VarDeclaration stmt) {
+        for (Stmt.Var var : stmt.variables) {
+            visitVarStmt(var);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitInputStmt(Stmt.Input stmt) {
+        List<Token> names = stmt.getVariableNames();
+        stmt.slots = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            stmt.slots[i] = slot(names.get(i));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitIfStmt(Stmt.If stmt) {
+        resolve(stmt.condition);
+        resolve(stmt.thenBranch);
+        resolve(stmt.elseBranch);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStmt(Stmt.While stmt) {
+        resolve(stmt.condition);
+        resolve(stmt.body);
+        return null;
+    }
+
+    @Override
+    public Void visitForStmt(Stmt.For stmt) {
+        resolve(stmt.initializer);
+        resolve(stmt.condition);
+        resolve(stmt.body);
+        resolve(stmt.increment);
+        return null;
+    }
+}
@@ -0,0 +1,295 @@
+package SematicAnalyzer;
+
+import LexicalAnalyzer.ExecutionContext;
+import LexicalAnalyzer.Token;
+import SyntaxAnalyzer.Expr;
+import SyntaxAnalyzer.Stmt;
+import SyntaxAnalyzer.ValueType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Annotates every expression with its static type and reports type errors
+// before the program runs. Assignments and declarations it can prove are
+// marked as checked so the engines skip the runtime check.
+//
+// Runs after the Resolver. A declared variable may still hold null (MUGNA
+// without an initializer), so operand checks on variables stay at runtime.
+public class TypeChecker implements Expr.Visitor<ValueType>, Stmt.Visitor<Void> {
+    // Declared type per program-level slot; UNKNOWN when the same name is
+    // declared with different types.
+    private final Map<Integer, ValueType> declared = new HashMap<>();
+    private final ExecutionContext context;
+
+    public TypeChecker() {
+        this(ExecutionContext.standard());
+    }
+
+    public TypeChecker(ExecutionContext context) {
+        this.context = context;
+    }
+
+    public void check(List<Stmt> statements) {
+        for (Stmt statement : statements) {
+            collectDeclarations(statement);
+        }
+        for (Stmt statement : statements) {
+            check(statement);
+        }
+    }
+
+    private void collectDeclarations(Stmt stmt) {
+        if (stmt instanceof Stmt.VarDeclaration) {
+            for (Stmt.Var var : ((Stmt.VarDeclaration) stmt).variables) {
+                collectDeclarations(var);
+            }
+        } else if (stmt instanceof Stmt.Var) {
+            Stmt.Var var = (Stmt.Var) stmt;
+            ValueType type = ValueType.ofDeclared(var.getType());
+            ValueType previous = declared.putIfAbsent(var.slot, type);
+            if (previous != null && previous != type) declared.put(var.slot, ValueType.UNKNOWN);
+        } else if (stmt instanceof Stmt.Sugod) {
+            for (Stmt statement : ((Stmt.Sugod) stmt).statements) collectDeclarations(statement);
+        } else if (stmt instanceof Stmt.Block) {
+            for (Stmt statement : ((Stmt.Block) stmt).statements) collectDeclarations(statement);
+        } else if (stmt instanceof Stmt.If) {
+            collectDeclarations(((Stmt.If) stmt).thenBranch);
+            collectDeclarations(((Stmt.If) stmt).elseBranch);
+        } else if (stmt instanceof Stmt.While) {
+            collectDeclarations(((Stmt.While) stmt).body);
+        } else if (stmt instanceof Stmt.For) {
+            collectDeclarations(((Stmt.For) stmt).initializer);
+            collectDeclarations(((Stmt.For) stmt).body);
+        }
+    }
+
+    private ValueType declaredType(int slot) {
+        return declared.getOrDefault(slot, ValueType.UNKNOWN);
+    }
+
+    private void check(Stmt stmt) {
+        if (stmt != null) stmt.accept(this);
+    }
+
+    private ValueType check(Expr expr) {
+        if (expr == null) return ValueType.NULL;
+        ValueType type = expr.accept(this);
+        expr.valueType = type;
+        return type;
+    }
+
+    // Whether the value of a well-typed expression may still be null at runtime.
+    private static boolean canBeNull(Expr expr) {
+        if (expr instanceof Expr.Variable) return true;
+        if (expr instanceof Expr.Literal) return ((Expr.Literal) expr).value == null;
+        if (expr instanceof Expr.Assign) return canBeNull(((Expr.Assign) expr).value);
+        if (expr instanceof Expr.Grouping) return canBeNull(((Expr.Grouping) expr).expression);
+        if (expr instanceof Expr.Logical) {
+            return canBeNull(((Expr.Logical) expr).left) || canBeNull(((Expr.Logical) expr).right);
+        }
+        return false;
+    }
+
+    private void error(Token token, String message) {
+        context.error(token, message);
+    }
+
+    @Override
+    public ValueType visitLiteralExpr(Expr.Literal expr) {
+        return ValueType.ofValue(expr.value);
+    }
+
+    @Override
+    public ValueType visitGroupingExpr(Expr.Grouping expr) {
+        return check(expr.expression);
+    }
+
+    @Override
+    public ValueType visitConcatExpr(Expr.Concat expr) {
+        for (Expr part : expr.parts) check(part);
+        return ValueType.STRING;
+    }
+
+    @Override
+    public ValueType visitVariableExpr(Expr.Variable expr) {
+        ValueType type = declaredType(expr.slot);
+        // DAWAT stores the number it reads as-is, so a TIPIK variable may hold
+        // a NUMERO value; leave those operands to the runtime checks.
+        return type == ValueType.TIPIK ? ValueType.UNKNOWN : type;
+    }
+
+    @Override
+    public ValueType visitAssignExpr(Expr.Assign expr) {
+        ValueType value = check(expr.value);
+        ValueType target = declaredType(expr.slot);
+
+        if (target.isKnown()) {
+            if (value == target || value == ValueType.NULL) {
+                expr.checked = true;
+            } else if (value.isKnown()) {
+                error(expr.name, switch (target) {
+                    case NUMERO -> "Expected a number for NUMERO variable.";
+                    case TIPIK -> "Expected a number for TIPIK variable.";
+                    case LETRA -> "Expected a character for LETRA variable.";
+                    default -> "Expected a boolean for TINUOD variable.";
+                });
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public ValueType visitIncrementExpr(Expr.Increment expr) {
+        ValueType target = declaredType(expr.slot);
+        if (target.isKnown() && target != ValueType.NUMERO) error(expr.name, "Numbers lang ma increment.");
+        return ValueType.NUMERO;
+    }
+
+    @Override
+    public ValueType visitDecrementExpr(Expr.Decrement expr) {
+        ValueType target = declaredType(expr.slot);
+        if (target.isKnown() && target != ValueType.NUMERO) error(expr.name, "Numbers lang ma decrement.");
+        return ValueType.NUMERO;
+    }
+
+    @Override
+    public ValueType visitUnaryExpr(Expr.Unary expr) {
+        ValueType right = check(expr.right);
+        return switch (expr.operator.getTokenType()) {
+            case MINUS -> {
+                if (right.isKnown() && right != ValueType.NUMERO) {
+                    error(expr.operator, "Number dapat ang operand.");
+                }
+                yield right == ValueType.NUMERO ? ValueType.NUMERO : ValueType.UNKNOWN;
+            }
+            case NOT -> ValueType.TINUOD;
+            default -> ValueType.UNKNOWN;
+        };
+    }
+
+    @Override
+    public ValueType visitBinaryExpr(Expr.Binary expr) {
+        ValueType left = check(expr.left);
+        ValueType right = check(expr.right);
+
+        switch (expr.operator.getTokenType()) {
+            case MINUS, MULTIPLY, DIVIDE, MODULO, GREATER_THAN, GREATER_EQUAL, LESS_THAN, LESS_EQUAL -> {
+                if ((left.isKnown() && left != ValueType.NUMERO) || (right.isKnown() && right != ValueType.NUMERO)) {
+                    error(expr.operator, "Numbers dapat ang mga operands.");
+                }
+                return switch (expr.operator.getTokenType()) {
+                    case GREATER_THAN, GREATER_EQUAL, LESS_THAN, LESS_EQUAL -> ValueType.TINUOD;
+                    case MODULO -> ValueType.NUMERO;
+                    default -> left == ValueType.NUMERO && right == ValueType.NUMERO
+                            ? ValueType.NUMERO : ValueType.UNKNOWN;
+                };
+            }
+            case PLUS -> {
+                if (!isAddable(left) || !isAddable(right) || (left.isKnown() && right.isKnown() && left != right)) {
+                    error(expr.operator, "Operands dapat ay duha ka numbers, strings, o characters.");
+                    return ValueType.UNKNOWN;
+                }
+                // LETRA + LETRA adds the character codes.
+                return left == right && left != ValueType.LETRA ? left : ValueType.UNKNOWN;
+            }
+            case EQUALS, NOT_EQUALS -> {
+                return ValueType.TINUOD;
+            }
+            case CONCAT, NEXT_LINE -> {
+                return ValueType.STRING;
+            }
+            default -> {
+                return ValueType.UNKNOWN;
+            }
+        }
+    }
+
+    private static boolean isAddable(ValueType type) {
+        return !type.isKnown() || type == ValueType.NUMERO || type == ValueType.STRING || type == ValueType.LETRA;
+    }
+
+    @Override
+    public ValueType visitLogicalExpr(Expr.Logical expr) {
+        ValueType left = check(expr.left);
+        ValueType right = check(expr.right);
+        // O and UG yield one of their operands, not a fresh boolean.
+        return left == right ? left : ValueType.UNKNOWN;
+    }
+
+    @Override
+    public Void visitBlockStmt(Stmt.Block stmt) {
+        for (Stmt statement : stmt.statements) check(statement);
+        return null;
+    }
+
+    @Override
+    public Void visitSugodStmt(Stmt.Sugod stmt) {
+        for (Stmt statement : stmt.statements) check(statement);
+        return null;
+    }
+
+    @Override
+    public Void visitExpressionStmt(Stmt.Expression stmt) {
+        check(stmt.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitPrintStmt(Stmt.Print stmt) {
+        check(stmt.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitVarStmt(Stmt.Var stmt) {
+        if (stmt.initializer != null) check(stmt.initializer);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDeclarationStmt(Stmt.VarDeclaration stmt) {
+        for (Stmt.Var var : stmt.variables) {
+            if (var.initializer == null) continue;
+
+            ValueType value = check(var.initializer);
+            ValueType target = ValueType.ofDeclared(var.getType());
+
+            if (value == target && !canBeNull(var.initializer)) {
+                var.checked = true;
+            } else if (value.isKnown() && value != target && !(target == ValueType.TIPIK && value == ValueType.NUMERO)) {
+                error(var.name, "Variable " + var.name.getLexeme() + " kay " + var.getType() + " dapat.");
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitInputStmt(Stmt.Input stmt) {
+        return null;
+    }
+
+    @Override
+    public Void visitIfStmt(Stmt.If stmt) {
+        check(stmt.condition);
+        check(stmt.thenBranch);
+        check(stmt.elseBranch);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStmt(Stmt.While stmt) {
+        check(stmt.condition);
+        check(stmt.body);
+        return null;
+    }
+
+    @Override
+    public Void visitForStmt(Stmt.For stmt) {
+        check(stmt.initializer);
+        check(stmt.condition);
+        check(stmt.body);
+        if (stmt.increment != null) check(stmt.increment);
+        return null;
+    }
+}
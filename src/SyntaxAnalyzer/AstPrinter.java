@@ -4,11 +4,17 @@ import LexicalAnalyzer.Token;
 import LexicalAnalyzer.TokenType;
 import SyntaxAnalyzer.Expr;
 
-public class AstPrinter implements Expr.Visitor<String> {
+import java.util.List;
+
+public class AstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
     public String print(Expr expr) {
         return expr.accept(this);
     }
 
+    public String print(Stmt stmt) {
+        return stmt.accept(this);
+    }
+
     @Override
     public String visitBinaryExpr(Expr.Binary expr) {
         return parenthesize(expr.operator.getLexeme(), expr.left, expr.right);
@@ -29,27 +35,109 @@ public class AstPrinter implements Expr.Visitor<String> {
 
     @Override
     public String visitVariableExpr(Expr.Variable var1) {
-        return null;
+        return var1.name.getLexeme();
     }
 
     @Override
     public String visitAssignExpr(Expr.Assign var1) {
-        return null;
+        return parenthesize("= " + var1.name.getLexeme(), var1.value);
     }
 
     @Override
     public String visitLogicalExpr(Expr.Logical expr) {
-        return null;
+        return parenthesize(expr.operator.getLexeme(), expr.left, expr.right);
     }
 
     @Override
     public String visitIncrementExpr(Expr.Increment expr) {
-        return null;
+        return "(++ " + expr.name.getLexeme() + ")";
     }
 
     @Override
     public String visitDecrementExpr(Expr.Decrement expr) {
-        return null;
+        return "(-- " + expr.name.getLexeme() + ")";
+    }
+
+    @Override
+    public String visitConcatExpr(Expr.Concat expr) {
+        return parenthesize("&", expr.parts.toArray(new Expr[0]));
+    }
+
+    @Override
+    public String visitBlockStmt(Stmt.Block stmt) {
+        return block("block", stmt.statements);
+    }
+
+    @Override
+    public String visitSugodStmt(Stmt.Sugod stmt) {
+        return block("sugod", stmt.statements);
+    }
+
+    @Override
+    public String visitExpressionStmt(Stmt.Expression stmt) {
+        return parenthesize(";", stmt.expression);
+    }
+
+    @Override
+    public String visitPrintStmt(Stmt.Print stmt) {
+        return parenthesize("ipakita", stmt.expression);
+    }
+
+    @Override
+    public String visitVarStmt(Stmt.Var stmt) {
+        String name = "mugna " + stmt.getType() + " " + stmt.name.getLexeme();
+        if (stmt.initializer == null) return "(" + name + ")";
+        return parenthesize(name, stmt.initializer);
+    }
+
+    @Override
+    public String visitVarDeclarationStmt(Stmt.VarDeclaration stmt) {
+        StringBuilder builder = new StringBuilder();
+        for (Stmt.Var var : stmt.variables) {
+            if (builder.length() > 0) builder.append(" ");
+            builder.append(visitVarStmt(var));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String visitInputStmt(Stmt.Input stmt) {
+        StringBuilder builder = new StringBuilder("(dawat");
+        for (Token name : stmt.getVariableNames()) {
+            builder.append(" ").append(name.getLexeme());
+        }
+        return builder.append(")").toString();
+    }
+
+    @Override
+    public String visitIfStmt(Stmt.If stmt) {
+        String branches = print(stmt.thenBranch);
+        if (stmt.elseBranch != null) branches += " " + print(stmt.elseBranch);
+        return "(kung " + print(stmt.condition) + " " + branches + ")";
+    }
+
+    @Override
+    public String visitWhileStmt(Stmt.While stmt) {
+        return "(samtang " + print(stmt.condition) + " " + print(stmt.body) + ")";
+    }
+
+    @Override
+    public String visitForStmt(Stmt.For stmt) {
+        return "(alang " + (stmt.initializer == null ? "nil" : print(stmt.initializer))
+                + " " + print(stmt.condition)
+                + " " + (stmt.increment == null ? "nil" : print(stmt.increment))
+                + " " + print(stmt.body) + ")";
+    }
+
+    private String block(String name, List<Stmt> statements) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("(").append(name);
+        for (Stmt statement : statements) {
+            builder.append(" ");
+            builder.append(print(statement));
+        }
+        builder.append(")");
+        return builder.toString();
     }
 
     private String parenthesize(String name, Expr... exprs) {
@@ -1,150 +1,158 @@
-//
-// Source code recreated from a .class file by IntelliJ IDEA
-// (powered by FernFlower decompiler)
-//
+// Generated by Tools.GenerateAst; change the node list there and regenerate.
 
 package SyntaxAnalyzer;
 
 import LexicalAnalyzer.Token;
 
-public abstract class Expr {
-    public Expr() {
+import java.util.List;
+
+public abstract sealed class Expr permits Expr.Assign, Expr.Binary, Expr.Grouping, Expr.Literal, Expr.Logical, Expr.Unary, Expr.Variable, Expr.Increment, Expr.Decrement, Expr.Concat {
+    public static final int ASSIGN = 0;
+    public static final int BINARY = 1;
+    public static final int GROUPING = 2;
+    public static final int LITERAL = 3;
+    public static final int LOGICAL = 4;
+    public static final int UNARY = 5;
+    public static final int VARIABLE = 6;
+    public static final int INCREMENT = 7;
+    public static final int DECREMENT = 8;
+    public static final int CONCAT = 9;
+
+    // One of the constants above, fixed by the node class.
+    public final int kind;
+    // Static type, filled in by the TypeChecker.
+    public ValueType valueType = ValueType.UNKNOWN;
+
+    Expr(int kind) {
+        this.kind = kind;
     }
 
-    public abstract <R> R accept(Visitor<R> var1);
+    public abstract <R> R accept(Visitor<R> visitor);
 
-    public static class Variable extends Expr {
+    public static final class Assign extends Expr {
         public final Token name;
+        public final Expr value;
+        // Bound by the Resolver.
+        public int slot = -1;
+        // Set by the TypeChecker when the value always fits the declared type.
+        public boolean checked;
 
-        Variable(Token name) {
+        Assign(Token name, Expr value) {
+            super(ASSIGN);
             this.name = name;
+            this.value = value;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-
-            return visitor.visitVariableExpr(this);
+            return visitor.visitAssignExpr(this);
         }
     }
 
-    public static class Binary extends Expr {
+    public static final class Binary extends Expr {
         public final Expr left;
         public final Token operator;
         public final Expr right;
 
         Binary(Expr left, Token operator, Expr right) {
+            super(BINARY);
             this.left = left;
             this.operator = operator;
             this.right = right;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-
             return visitor.visitBinaryExpr(this);
         }
     }
 
-    public static class Grouping extends Expr {
+    public static final class Grouping extends Expr {
         public final Expr expression;
 
         Grouping(Expr expression) {
+            super(GROUPING);
             this.expression = expression;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
             return visitor.visitGroupingExpr(this);
         }
     }
 
-    public static class Literal extends Expr {
+    public static final class Literal extends Expr {
         public final Object value;
 
         Literal(Object value) {
+            super(LITERAL);
             this.value = value;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-
             return visitor.visitLiteralExpr(this);
         }
     }
 
-    public static class Unary extends Expr {
+    public static final class Logical extends Expr {
+        public final Expr left;
         public final Token operator;
         public final Expr right;
 
-        Unary(Token operator, Expr right) {
+        Logical(Expr left, Token operator, Expr right) {
+            super(LOGICAL);
+            this.left = left;
             this.operator = operator;
             this.right = right;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-            return visitor.visitUnaryExpr(this);
+            return visitor.visitLogicalExpr(this);
         }
     }
 
+    public static final class Unary extends Expr {
+        public final Token operator;
+        public final Expr right;
 
-
-    public static class Assign extends Expr {
-        public final Token name;
-        public final Expr value;
-
-        Assign(Token name, Expr value) {
-            this.name = name;
-            this.value = value;
+        Unary(Token operator, Expr right) {
+            super(UNARY);
+            this.operator = operator;
+            this.right = right;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-            return visitor.visitAssignExpr(this);
+            return visitor.visitUnaryExpr(this);
         }
     }
 
-    public static class Logical extends Expr {
-        Logical(Expr left, Token operator, Expr right) {
-            this.left = left;
-            this.operator = operator;
-            this.right = right;
+    public static final class Variable extends Expr {
+        public final Token name;
+        // Bound by the Resolver.
+        public int slot = -1;
+
+        Variable(Token name) {
+            super(VARIABLE);
+            this.name = name;
         }
+
         @Override
         public <R> R accept(Visitor<R> visitor) {
-            if (visitor == null) {
-                return null; // or handle null as needed
-            }
-
-            return visitor.visitLogicalExpr(this);
+            return visitor.visitVariableExpr(this);
         }
-        public final Expr left;
-        public final Token operator;
-        public final Expr right;
     }
 
-    // Inside Expr.java
-
-    public static class Increment extends Expr {
+    public static final class Increment extends Expr {
         public final Token name;
+        // Bound by the Resolver.
+        public int slot = -1;
 
-
-        public Increment(Token name) {
+        Increment(Token name) {
+            super(INCREMENT);
             this.name = name;
-
         }
 
         @Override
@@ -153,13 +161,14 @@ public abstract class Expr {
         }
     }
 
-    public static class Decrement extends Expr {
+    public static final class Decrement extends Expr {
         public final Token name;
+        // Bound by the Resolver.
+        public int slot = -1;
 
-
-        public Decrement(Token name) {
+        Decrement(Token name) {
+            super(DECREMENT);
             this.name = name;
-
         }
 
         @Override
@@ -168,22 +177,68 @@ public abstract class Expr {
         }
     }
 
+    // A chain of & and $ flattened by the Optimizer; each $ is a "\n" part.
+    public static final class Concat extends Expr {
+        public final List<Expr> parts;
 
-    public interface Visitor<R> {
-        R visitBinaryExpr(Binary var1);
+        Concat(List<Expr> parts) {
+            super(CONCAT);
+            this.parts = parts;
+        }
 
-        R visitGroupingExpr(Grouping var1);
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitConcatExpr(this);
+        }
+    }
+
+    public interface Visitor<R> {
+        R visitAssignExpr(Assign expr);
 
-        R visitLiteralExpr(Literal var1);
+        R visitBinaryExpr(Binary expr);
 
-        R visitUnaryExpr(Unary var1);
+        R visitGroupingExpr(Grouping expr);
 
-        R visitVariableExpr(Variable var1);
+        R visitLiteralExpr(Literal expr);
 
-        R visitAssignExpr(Assign var1);
         R visitLogicalExpr(Logical expr);
+
+        R visitUnaryExpr(Unary expr);
+
+        R visitVariableExpr(Variable expr);
+
         R visitIncrementExpr(Increment expr);
+
         R visitDecrementExpr(Decrement expr);
 
+        R visitConcatExpr(Concat expr);
+
+        // Same as expr.accept(this), dispatched on the kind.
+        default R visit(Expr expr) {
+            switch (expr.kind) {
+                case ASSIGN:
+                    return visitAssignExpr((Assign) expr);
+                case BINARY:
+                    return visitBinaryExpr((Binary) expr);
+                case GROUPING:
+                    return visitGroupingExpr((Grouping) expr);
+                case LITERAL:
+                    return visitLiteralExpr((Literal) expr);
+                case LOGICAL:
+                    return visitLogicalExpr((Logical) expr);
+                case UNARY:
+                    return visitUnaryExpr((Unary) expr);
+                case VARIABLE:
+                    return visitVariableExpr((Variable) expr);
+                case INCREMENT:
+                    return visitIncrementExpr((Increment) expr);
+                case DECREMENT:
+                    return visitDecrementExpr((Decrement) expr);
+                case CONCAT:
+                    return visitConcatExpr((Concat) expr);
+                default:
+                    throw new IllegalStateException("Unknown expr kind " + expr.kind);
+            }
+        }
     }
 }
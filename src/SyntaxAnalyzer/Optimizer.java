@@ -0,0 +1,285 @@
+package SyntaxAnalyzer;
+
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import SematicAnalyzer.Operations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rewrites a parsed program that already passed the Resolver and TypeChecker,
+// so every diagnostic is reported against the source as written; the result
+// is resolved and checked again before it runs:
+//  - Binary, Unary and Grouping nodes over literals become one Literal,
+//  - reads of a non-TIPIK variable declared once at the top level with a
+//    constant initializer and never written again become that constant,
+//  - KUNG statements with a constant condition keep only the branch taken,
+//  - chains of & and $ become one Concat, with neighbouring literal parts
+//    joined, so the engines build the string once or print it part by part.
+//
+// Folding goes through Operations, so a folded value is exactly what the
+// engines would compute. An operation that would fail is left in place to
+// fail at runtime as before. Logical operators are not folded: they yield
+// an operand, and folding them could turn a runtime type error into a
+// static one.
+public class Optimizer {
+    // Declarations and writes per variable name; blocks share one scope.
+    private final Map<String, Integer> declarations = new HashMap<>();
+    private final Map<String, Integer> writes = new HashMap<>();
+    // Propagated values, filled in as top-level declarations are passed.
+    private final Map<String, Object> constants = new HashMap<>();
+    // How many KUNG/SAMTANG/ALANG SA bodies enclose the current statement.
+    private int nesting = 0;
+
+    public List<Stmt> optimize(List<Stmt> statements) {
+        for (Stmt statement : statements) count(statement);
+        return optimizeAll(statements);
+    }
+
+    private List<Stmt> optimizeAll(List<Stmt> statements) {
+        List<Stmt> optimized = new ArrayList<>(statements.size());
+        for (Stmt statement : statements) {
+            optimized.add(optimize(statement));
+        }
+        return optimized;
+    }
+
+    private Stmt optimize(Stmt stmt) {
+        if (stmt == null) return null;
+
+        if (stmt instanceof Stmt.Sugod) return new Stmt.Sugod(optimizeAll(((Stmt.Sugod) stmt).statements));
+        if (stmt instanceof Stmt.Block) return new Stmt.Block(optimizeAll(((Stmt.Block) stmt).statements));
+        if (stmt instanceof Stmt.Expression) return new Stmt.Expression(optimize(((Stmt.Expression) stmt).expression));
+        if (stmt instanceof Stmt.Print) return new Stmt.Print(optimize(((Stmt.Print) stmt).expression));
+        if (stmt instanceof Stmt.Input) return stmt;
+        if (stmt instanceof Stmt.VarDeclaration) {
+            List<Stmt.Var> variables = new ArrayList<>();
+            for (Stmt.Var var : ((Stmt.VarDeclaration) stmt).variables) {
+                variables.add((Stmt.Var) optimize(var));
+            }
+            return new Stmt.VarDeclaration(variables);
+        }
+        if (stmt instanceof Stmt.Var) {
+            Stmt.Var var = (Stmt.Var) stmt;
+            Expr initializer = optimize(var.initializer);
+            propagate(var, initializer);
+            return new Stmt.Var(var.name, initializer, var.type);
+        }
+        if (stmt instanceof Stmt.If) {
+            Stmt.If ifStmt = (Stmt.If) stmt;
+            Expr condition = optimize(ifStmt.condition);
+            nesting++;
+            try {
+                if (condition instanceof Expr.Literal) {
+                    boolean truthy = Operations.isTruthy(((Expr.Literal) condition).value);
+                    Stmt taken = truthy ? ifStmt.thenBranch : ifStmt.elseBranch;
+                    // A MUGNA in the dropped branch still has to resolve.
+                    if (!declares(truthy ? ifStmt.elseBranch : ifStmt.thenBranch)) {
+                        return taken == null ? new Stmt.Block(new ArrayList<>()) : optimize(taken);
+                    }
+                }
+                return new Stmt.If(condition, optimize(ifStmt.thenBranch), optimize(ifStmt.elseBranch));
+            } finally {
+                nesting--;
+            }
+        }
+        if (stmt instanceof Stmt.While) {
+            Stmt.While whileStmt = (Stmt.While) stmt;
+            nesting++;
+            try {
+                return new Stmt.While(optimize(whileStmt.condition), optimize(whileStmt.body));
+            } finally {
+                nesting--;
+            }
+        }
+        if (stmt instanceof Stmt.For) {
+            Stmt.For forStmt = (Stmt.For) stmt;
+            nesting++;
+            try {
+                return new Stmt.For(optimize(forStmt.initializer), optimize(forStmt.condition),
+                        optimize(forStmt.increment), optimize(forStmt.body));
+            } finally {
+                nesting--;
+            }
+        }
+        return stmt;
+    }
+
+    // Records the value of a top-level declaration that nothing else writes.
+    // Reads that come after it in the source also run after it, since it is
+    // not inside any loop or branch.
+    private void propagate(Stmt.Var var, Expr initializer) {
+        String name = var.name.getLexeme();
+        if (nesting > 0 || !(initializer instanceof Expr.Literal)) return;
+        if (declarations.getOrDefault(name, 0) != 1 || writes.containsKey(name)) return;
+
+        // A TIPIK read is typed UNKNOWN and checked at runtime, but the Float
+        // literal it would become is typed TIPIK and rejected statically.
+        Object value = ((Expr.Literal) initializer).value;
+        if (value == null || ValueType.ofDeclared(var.getType()) == ValueType.TIPIK) return;
+        try {
+            // Stored the way MUGNA stores it, e.g. a LETRA stays a Character.
+            constants.put(name, Operations.declare(var.name, var.getType(), value));
+        } catch (RuntimeException e) {
+            // Leave the declaration to fail at runtime.
+        }
+    }
+
+    private Expr optimize(Expr expr) {
+        if (expr == null) return null;
+
+        if (expr instanceof Expr.Variable) {
+            String name = ((Expr.Variable) expr).name.getLexeme();
+            if (constants.containsKey(name)) return new Expr.Literal(constants.get(name));
+            return expr;
+        }
+        if (expr instanceof Expr.Grouping) {
+            Expr inner = optimize(((Expr.Grouping) expr).expression);
+            return inner instanceof Expr.Literal ? inner : new Expr.Grouping(inner);
+        }
+        if (expr instanceof Expr.Unary) {
+            Expr.Unary unary = (Expr.Unary) expr;
+            Expr right = optimize(unary.right);
+            if (right instanceof Expr.Literal) {
+                Object value = ((Expr.Literal) right).value;
+                try {
+                    switch (unary.operator.getTokenType()) {
+                        case MINUS:
+                            return new Expr.Literal(Operations.negate(unary.operator, value));
+                        case NOT:
+                            return new Expr.Literal(!Operations.isTruthy(value));
+                        default:
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    // Not foldable; fails at runtime instead.
+                }
+            }
+            return new Expr.Unary(unary.operator, right);
+        }
+        if (expr instanceof Expr.Binary && isConcat(((Expr.Binary) expr).operator)) {
+            List<Expr> parts = new ArrayList<>();
+            concatParts(expr, parts);
+            if (parts.size() == 1 && parts.get(0) instanceof Expr.Literal) return parts.get(0);
+            return new Expr.Concat(parts);
+        }
+        if (expr instanceof Expr.Binary) {
+            Expr.Binary binary = (Expr.Binary) expr;
+            Expr left = optimize(binary.left);
+            Expr right = optimize(binary.right);
+            if (left instanceof Expr.Literal && right instanceof Expr.Literal) {
+                try {
+                    return new Expr.Literal(Operations.binary(binary.operator,
+                            ((Expr.Literal) left).value, ((Expr.Literal) right).value));
+                } catch (RuntimeException e) {
+                    // Not foldable; fails at runtime instead.
+                }
+            }
+            return new Expr.Binary(left, binary.operator, right);
+        }
+        if (expr instanceof Expr.Logical) {
+            Expr.Logical logical = (Expr.Logical) expr;
+            return new Expr.Logical(optimize(logical.left), logical.operator, optimize(logical.right));
+        }
+        if (expr instanceof Expr.Assign) {
+            Expr.Assign assign = (Expr.Assign) expr;
+            return new Expr.Assign(assign.name, optimize(assign.value));
+        }
+        return expr;
+    }
+
+    private static boolean isConcat(Token operator) {
+        return operator.getTokenType() == TokenType.CONCAT || operator.getTokenType() == TokenType.NEXT_LINE;
+    }
+
+    // Appends the optimized operands of a & and $ chain, looking through
+    // groupings since every part is stringified either way. A literal next
+    // to a literal is joined into one String.
+    private void concatParts(Expr expr, List<Expr> parts) {
+        Expr inner = expr;
+        while (inner instanceof Expr.Grouping) inner = ((Expr.Grouping) inner).expression;
+        if (inner instanceof Expr.Binary && isConcat(((Expr.Binary) inner).operator)) {
+            Expr.Binary binary = (Expr.Binary) inner;
+            concatParts(binary.left, parts);
+            if (binary.operator.getTokenType() == TokenType.NEXT_LINE) addPart(new Expr.Literal("\n"), parts);
+            concatParts(binary.right, parts);
+            return;
+        }
+        addPart(optimize(expr), parts);
+    }
+
+    private static void addPart(Expr part, List<Expr> parts) {
+        int last = parts.size() - 1;
+        if (part instanceof Expr.Literal && last >= 0 && parts.get(last) instanceof Expr.Literal) {
+            Object previous = ((Expr.Literal) parts.get(last)).value;
+            Object value = ((Expr.Literal) part).value;
+            parts.set(last, new Expr.Literal(Operations.stringify(previous) + Operations.stringify(value)));
+        } else {
+            parts.add(part);
+        }
+    }
+
+    private static boolean declares(Stmt stmt) {
+        if (stmt instanceof Stmt.VarDeclaration || stmt instanceof Stmt.Var) return true;
+        if (stmt instanceof Stmt.Block) return ((Stmt.Block) stmt).statements.stream().anyMatch(Optimizer::declares);
+        if (stmt instanceof Stmt.Sugod) return ((Stmt.Sugod) stmt).statements.stream().anyMatch(Optimizer::declares);
+        if (stmt instanceof Stmt.If) return declares(((Stmt.If) stmt).thenBranch) || declares(((Stmt.If) stmt).elseBranch);
+        if (stmt instanceof Stmt.While) return declares(((Stmt.While) stmt).body);
+        if (stmt instanceof Stmt.For) return declares(((Stmt.For) stmt).initializer) || declares(((Stmt.For) stmt).body);
+        return false;
+    }
+
+    private void count(Stmt stmt) {
+        if (stmt instanceof Stmt.Sugod) {
+            for (Stmt statement : ((Stmt.Sugod) stmt).statements) count(statement);
+        } else if (stmt instanceof Stmt.Block) {
+            for (Stmt statement : ((Stmt.Block) stmt).statements) count(statement);
+        } else if (stmt instanceof Stmt.Expression) {
+            count(((Stmt.Expression) stmt).expression);
+        } else if (stmt instanceof Stmt.Print) {
+            count(((Stmt.Print) stmt).expression);
+        } else if (stmt instanceof Stmt.VarDeclaration) {
+            for (Stmt.Var var : ((Stmt.VarDeclaration) stmt).variables) count(var);
+        } else if (stmt instanceof Stmt.Var) {
+            declarations.merge(((Stmt.Var) stmt).name.getLexeme(), 1, Integer::sum);
+            count(((Stmt.Var) stmt).initializer);
+        } else if (stmt instanceof Stmt.Input) {
+            for (var name : ((Stmt.Input) stmt).getVariableNames()) writes.merge(name.getLexeme(), 1, Integer::sum);
+        } else if (stmt instanceof Stmt.If) {
+            count(((Stmt.If) stmt).condition);
+            count(((Stmt.If) stmt).thenBranch);
+            count(((Stmt.If) stmt).elseBranch);
+        } else if (stmt instanceof Stmt.While) {
+            count(((Stmt.While) stmt).condition);
+            count(((Stmt.While) stmt).body);
+        } else if (stmt instanceof Stmt.For) {
+            count(((Stmt.For) stmt).initializer);
+            count(((Stmt.For) stmt).condition);
+            count(((Stmt.For) stmt).increment);
+            count(((Stmt.For) stmt).body);
+        }
+    }
+
+    private void count(Expr expr) {
+        if (expr instanceof Expr.Assign) {
+            writes.merge(((Expr.Assign) expr).name.getLexeme(), 1, Integer::sum);
+            count(((Expr.Assign) expr).value);
+        } else if (expr instanceof Expr.Increment) {
+            writes.merge(((Expr.Increment) expr).name.getLexeme(), 1, Integer::sum);
+        } else if (expr instanceof Expr.Decrement) {
+            writes.merge(((Expr.Decrement) expr).name.getLexeme(), 1, Integer::sum);
+        } else if (expr instanceof Expr.Binary) {
+            count(((Expr.Binary) expr).left);
+            count(((Expr.Binary) expr).right);
+        } else if (expr instanceof Expr.Logical) {
+            count(((Expr.Logical) expr).left);
+            count(((Expr.Logical) expr).right);
+        } else if (expr instanceof Expr.Grouping) {
+            count(((Expr.Grouping) expr).expression);
+        } else if (expr instanceof Expr.Unary) {
+            count(((Expr.Unary) expr).right);
+        }
+    }
+}
@@ -4,23 +4,29 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import LexicalAnalyzer.Bisayapreter;
+import LexicalAnalyzer.ExecutionContext;
 import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenStream;
 import LexicalAnalyzer.TokenType;
 
 public class Parser {
     public static class ParseError extends RuntimeException {
     }
-    private  final List<Token> tokens;
-    private int current = 0;
+    private final TokenStream tokens;
+    private final ExecutionContext context;
 
-    public Parser(List<Token> tokens) {
+    public Parser(TokenStream tokens) {
+        this(tokens, ExecutionContext.standard());
+    }
+
+    public Parser(TokenStream tokens, ExecutionContext context) {
         this.tokens = tokens;
+        this.context = context;
     }
 
     public List<Stmt> parse() {
         List<Stmt> statements = new ArrayList<>();
-        if(!peek().getLexeme().equals("SUGOD")){
+        if(!check(TokenType.START)){
             throw error(peek(),"Expect 'SUGOD' at the start of the program.");
         }
 
@@ -36,7 +42,7 @@ public class Parser {
         consume(TokenType.START, "Expected 'SUGOD' at the start of the program.");
         List<Stmt> statements = new ArrayList<>();
 
-        while(!peek().getLexeme().equals("KATAPUSAN") && !isAtEnd()){
+        while(!check(TokenType.END) && !isAtEnd()){
             statements.add(declaration());
         }
 
@@ -108,19 +114,9 @@ public class Parser {
         consume(TokenType.BLOCK, "Expected 'PUNDOK' after ).");
 
         Stmt body = statement();
-        if (increment != null) {
-            body = new Stmt.Block(Arrays.asList(body, new Stmt.Expression(increment)));
-        }
 
         if (condition == null) condition = new Expr.Literal(true);
-        body = new Stmt.While(condition, body);
-
-        List<Stmt> statements = new ArrayList<>();
-        if (initializer != null) statements.add(initializer);
-        statements.add(body);
-        body = new Stmt.Block(statements);
-
-        return body;
+        return new Stmt.For(initializer, condition, increment, body);
     }
 
     private Stmt whileStatement() {
@@ -154,30 +150,28 @@ public class Parser {
         List<Token> variableNames = new ArrayList<>();
 
         do {
-            Token variableName = consume(TokenType.IDENTIFIER, "variable name na dapat.");
-            variableNames.add(variableName);
+            consume(TokenType.IDENTIFIER, "variable name na dapat.");
+            variableNames.add(previous());
         } while (match(TokenType.COMMA));
 
         return new Stmt.Input(variableNames);
     }
 
     private Stmt printStatement() {
-        int beforeExpr = current;
-
         Expr value = expression();
 
         if (!isAtEnd() && !check(TokenType.NEXT_LINE) && !check(TokenType.RBRACE)) {
-            Token token = peek();
+            TokenType next = tokens.peekType(0);
 
-            if (token.getTokenType() == TokenType.IDENTIFIER ||
-                    token.getTokenType() == TokenType.STRING ||
-                    token.getTokenType() == TokenType.NUMBER ||
-                    token.getTokenType() == TokenType.CHARACTER ||
-                    token.getTokenType() == TokenType.BOOL_TRUE ||
-                    token.getTokenType() == TokenType.BOOL_FALSE ||
-                    token.getTokenType() == TokenType.LPAREN) {
+            if (next == TokenType.IDENTIFIER ||
+                    next == TokenType.STRING ||
+                    next == TokenType.NUMBER ||
+                    next == TokenType.CHARACTER ||
+                    next == TokenType.BOOL_TRUE ||
+                    next == TokenType.BOOL_FALSE ||
+                    next == TokenType.LPAREN) {
 
-                throw error(token, "Expected '&' sa tunga sa mga variable/expression sa IPAKITA statement.");
+                throw error(peek(), "Expected '&' sa tunga sa mga variable/expression sa IPAKITA statement.");
             }
         }
 
@@ -190,7 +184,8 @@ public class Parser {
         List<Stmt.Var> vars = new ArrayList<>();
 
         do {
-            Token name = consume(TokenType.IDENTIFIER, "variable name na dapat.");
+            consume(TokenType.IDENTIFIER, "variable name na dapat.");
+            Token name = previous();
 
             if (!check(TokenType.ASSIGNMENT)) {
                 vars.add(new Stmt.Var(name, null, type));
@@ -208,7 +203,8 @@ public class Parser {
         consume(TokenType.NUMERO, TokenType.LETRA, TokenType.TINUOD, TokenType.TIPIK);
         Token type = previous();
         List<Stmt.Var> vars = new ArrayList<>();
-        Token name = consume(TokenType.IDENTIFIER, "variable name na dapat.");
+        consume(TokenType.IDENTIFIER, "variable name na dapat.");
+        Token name = previous();
 
         // Check if the variable has an initializer
         Expr initializer = null;
@@ -234,7 +230,7 @@ public class Parser {
     }
 
     private Expr assignment() {
-        Expr expr = or();
+        Expr expr = binary(OR_PRECEDENCE);
 
         if (match(TokenType.ASSIGNMENT)) {
             Token equals = previous();
@@ -249,72 +245,60 @@ public class Parser {
         return expr;
     }
 
-    private Expr or() {
-        Expr expr = and();
-        while (match(TokenType.OR)) {
-            Token operator = previous();
-            Expr right = and();
-            expr = new Expr.Logical(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr and() {
-        Expr expr = equality();
-        while (match(TokenType.AND)) {
-            Token operator = previous();
-            Expr right = equality();
-            expr = new Expr.Logical(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr equality() {
-        Expr expr = comparison();
-
-        while (match(TokenType.NOT_EQUALS, TokenType.EQUALS)) {
-            Token operator = previous();
-            Expr right = comparison();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr comparison() {
-        Expr expr = term();
-
-        while (match(TokenType.GREATER_THAN, TokenType.GREATER_EQUAL, TokenType.LESS_THAN, TokenType.LESS_EQUAL)) {
-            Token operator = previous();
-            Expr right = term();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr term() {
-        Expr expr = factor();
-
-        while (match(TokenType.MINUS, TokenType.PLUS, TokenType.CONCAT, TokenType.NEXT_LINE, TokenType.MODULO)) {
-            Token operator = previous();
-            Expr right = factor();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr factor() {
+    // Binary and logical operators, from the loosest to the tightest binding.
+    // INFIX_PRECEDENCE holds each operator's level by TokenType ordinal and
+    // 0 for every other token.
+    private static final int OR_PRECEDENCE = 1;
+    private static final int AND_PRECEDENCE = 2;
+    private static final int EQUALITY_PRECEDENCE = 3;
+    private static final int COMPARISON_PRECEDENCE = 4;
+    private static final int TERM_PRECEDENCE = 5;
+    private static final int FACTOR_PRECEDENCE = 6;
+    private static final int[] INFIX_PRECEDENCE = new int[TokenType.values().length];
+
+    static {
+        INFIX_PRECEDENCE[TokenType.OR.ordinal()] = OR_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.AND.ordinal()] = AND_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.EQUALS.ordinal()] = EQUALITY_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.NOT_EQUALS.ordinal()] = EQUALITY_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.GREATER_THAN.ordinal()] = COMPARISON_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.GREATER_EQUAL.ordinal()] = COMPARISON_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.LESS_THAN.ordinal()] = COMPARISON_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.LESS_EQUAL.ordinal()] = COMPARISON_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.PLUS.ordinal()] = TERM_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.MINUS.ordinal()] = TERM_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.CONCAT.ordinal()] = TERM_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.NEXT_LINE.ordinal()] = TERM_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.MULTIPLY.ordinal()] = FACTOR_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.DIVIDE.ordinal()] = FACTOR_PRECEDENCE;
+        INFIX_PRECEDENCE[TokenType.MODULO.ordinal()] = FACTOR_PRECEDENCE;
+    }
+
+    // Precedence climbing: parses a unary operand, then every following
+    // infix operator that binds at least as tightly as minimum. Operands of
+    // an operator bind one level tighter, so all operators are
+    // left-associative.
+    private Expr binary(int minimum) {
         Expr expr = unary();
 
-        while (match(TokenType.DIVIDE, TokenType.MULTIPLY, TokenType.MODULO)) {
+        while (true) {
+            TokenType type = tokens.peekType(0);
+            int precedence = INFIX_PRECEDENCE[type.ordinal()];
+            if (precedence < minimum || precedence == 0) return expr;
+
+            advance();
             Token operator = previous();
-            Expr right = unary();
-            expr = new Expr.Binary(expr, operator, right);
+            Expr right = binary(precedence + 1);
+            if (type == TokenType.OR || type == TokenType.AND) {
+                expr = new Expr.Logical(expr, operator, right);
+            } else {
+                expr = new Expr.Binary(expr, operator, right);
+            }
         }
-        return expr;
     }
 
     private Expr unary() {
-        if (match(TokenType.NOT, TokenType.MINUS)) {
+        if (match(TokenType.NOT) || match(TokenType.MINUS)) {
             Token operator = previous();
             Expr right = unary();
             return new Expr.Unary(operator, right);
@@ -327,16 +311,16 @@ public class Parser {
         if (match(TokenType.BOOL_TRUE)) return new Expr.Literal(true);
         if (match(TokenType.NULL)) return new Expr.Literal(null);
         if (match(TokenType.NUMBER)) {
-            return new Expr.Literal(previous().getLiteral());
+            return new Expr.Literal(tokens.previousLiteral());
         }
         if (match(TokenType.STRING)) {
-            return new Expr.Literal(previous().getLiteral());
+            return new Expr.Literal(tokens.previousLiteral());
         }
         if (match(TokenType.CHARACTER)) {
-            return new Expr.Literal(previous().getLiteral());
+            return new Expr.Literal(tokens.previousLiteral());
         }
         if (match(TokenType.FLOAT)) {
-            return new Expr.Literal(previous().getLiteral());
+            return new Expr.Literal(tokens.previousLiteral());
         }
         if (match(TokenType.LPAREN)) {
             Expr expr = expression();
@@ -360,7 +344,7 @@ public class Parser {
             return new Expr.Variable(variable); // AHAHAHHA
         }
         if (match(TokenType.ESCAPE_CODE)) {
-            String value = previous().getLiteral().toString();
+            String value = tokens.previousLiteral().toString();
 
             if (isIdentifier(value)) {
                 return new Expr.Variable(new Token(TokenType.IDENTIFIER, value, value, previous().getLine()));
@@ -370,7 +354,7 @@ public class Parser {
                 value = value.substring(1, value.length() - 1);
                 return new Expr.Literal(value);
             }
-            return new Expr.Literal(previous().getLiteral());
+            return new Expr.Literal(tokens.previousLiteral());
         }
 
         if (match(TokenType.NEXT_LINE)) return new Expr.Literal('\n');
@@ -381,50 +365,56 @@ public class Parser {
         return value.matches("[a-zA-Z_][a-zA-Z0-9_]*");
     }
 
-    private boolean match(TokenType... types) {
-        for (TokenType type : types) {
-            if (check(type)) {
-                advance();
-                return true;
-            }
+    private boolean match(TokenType type) {
+        if (check(type)) {
+            advance();
+            return true;
         }
         return false;
     }
 
-    private Token consume(TokenType type, String message) {
-        if (check(type)) return advance();
+
+    // Callers that need the consumed token take it from previous(), so
+    // punctuation is never turned into a Token object.
+    private void consume(TokenType type, String message) {
+        if (check(type)) {
+            advance();
+            return;
+        }
         throw this.error(this.peek(), message);
     }
 
-    private Token consume(TokenType... types) {
+    private void consume(TokenType... types) {
         for (TokenType type : types) {
-            if (check(type)) return advance();
+            if (check(type)) {
+                advance();
+                return;
+            }
         }
         throw this.error(peek(), "Expected one of " + Arrays.toString(types));
     }
 
     private boolean check(TokenType type) {
         if (isAtEnd()) return false;
-        return peek().getTokenType() == type;
+        return tokens.peekType(0) == type;
     }
 
-    private Token advance() {
-        if (!isAtEnd()) current++;
-        return previous();
+    private void advance() {
+        if (!isAtEnd()) tokens.skip();
     }
 
     private boolean isAtEnd() {
-        return peek().getTokenType() == TokenType.EOF;
+        return tokens.peekType(0) == TokenType.EOF;
     }
     private Token peek() {
-        return tokens.get(current);
+        return tokens.peek(0);
     }
     private Token previous() {
-        return tokens.get(current - 1);
+        return tokens.previous();
     }
 
     private ParseError error(Token token, String message) {
-        Bisayapreter.error(token, message);
+        context.error(token, message);
         return new ParseError();
     }
 
@@ -434,7 +424,7 @@ public class Parser {
         while (!isAtEnd()) {
             if (previous().getTokenType() == TokenType.NEXT_LINE) return;
 
-            switch (peek().getTokenType()) {
+            switch (tokens.peekType(0)) {
                 case MUGNA:
                 case START: //sugod
                 case END: //katapusan
@@ -0,0 +1,135 @@
+package SyntaxAnalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// On-disk cache of compiled programs (see ProgramCodec), one file per
+// source, named after a SHA-256 of the source bytes and the options that
+// change what compiling produces.
+//
+// Every hit touches the file's modification time, so evicting the oldest
+// files first once the directory grows past maxBytes is least recently
+// used. The cache is only an optimization: a file that fails to read is
+// deleted and reported as a miss, and a failed write is dropped.
+public class ProgramCache {
+    private static final String SUFFIX = ".bpc";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public ProgramCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    // Key for a source file read with the given charset; options are the
+    // compile options in effect, e.g. whether the Optimizer runs.
+    public String key(Path source, Charset charset, String options) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((charset.name() + '\0' + options + '\0').getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = Files.newInputStream(source)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) digest.update(buffer, 0, read);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    // The program stored under key, or null on a miss.
+    public List<Stmt> load(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            List<Stmt> statements = ProgramCodec.read(in);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return statements;
+        } catch (IOException | RuntimeException e) {
+            // Corrupt, truncated or from another format version.
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            return null;
+        }
+    }
+
+    // Stores a resolved and checked program before anything has run it.
+    public void store(String key, List<Stmt> statements) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            // Written aside and moved in, so a concurrent load never sees half a file.
+            temporary = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                ProgramCodec.write(statements, out);
+            }
+            Path file = directory.resolve(key + SUFFIX);
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temporary = null;
+            evict();
+        } catch (IOException | RuntimeException e) {
+            // Not cached this time.
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private record Entry(Path file, long size, FileTime lastUsed) {
+    }
+
+    private void evict() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Entry entry = new Entry(file, Files.size(file), Files.getLastModifiedTime(file));
+                entries.add(entry);
+                total += entry.size;
+            }
+        }
+        if (total <= maxBytes) return;
+
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxBytes) break;
+            if (Files.deleteIfExists(entry.file)) total -= entry.size;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package SyntaxAnalyzer;
+
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary form of a parsed program for ProgramCache, including what the
+// Resolver and TypeChecker filled in (slots, value types and checked
+// flags), so a decoded program can run without either pass.
+//
+// A file is MAGIC, VERSION and the statement list. Each token is written in
+// full the first time and by index after that, which also keeps tokens that
+// several nodes share shared after decoding. Bump VERSION whenever the
+// layout, the node classes, TokenType or ValueType change.
+public final class ProgramCodec {
+    private static final int MAGIC = 0x42505043; // "BPPC"
+    private static final int VERSION = 3;
+
+    // Statement tags.
+    private static final int BLOCK = 1, SUGOD = 2, EXPRESSION = 3, PRINT = 4, VAR = 5, VAR_DECLARATION = 6,
+            INPUT = 7, IF = 8, WHILE = 9, FOR = 10;
+    // Expression tags.
+    private static final int LITERAL = 1, VARIABLE = 2, ASSIGN = 3, INCREMENT = 4, DECREMENT = 5, UNARY = 6,
+            BINARY = 7, LOGICAL = 8, GROUPING = 9, CONCAT = 10;
+    // Literal value tags.
+    private static final int NULL = 0, NUMBER = 1, FLOAT = 2, STRING = 3, CHARACTER = 4, BOOLEAN = 5;
+    private static final int ABSENT = 0;
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final ValueType[] VALUE_TYPES = ValueType.values();
+
+    private ProgramCodec() {
+    }
+
+    public static void write(List<Stmt> statements, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        new Writer(out).statements(statements);
+    }
+
+    // Throws IOException if the data is not a program in this VERSION.
+    public static List<Stmt> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a compiled program.");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Compiled program version " + version + ", expected " + VERSION + ".");
+        return new Reader(in).statements();
+    }
+
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Map<Token, Integer> tokens = new IdentityHashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void statements(List<Stmt> statements) throws IOException {
+            out.writeInt(statements.size());
+            for (Stmt statement : statements) statement(statement);
+        }
+
+        private void statement(Stmt stmt) throws IOException {
+            if (stmt == null) {
+                out.writeByte(ABSENT);
+            } else if (stmt instanceof Stmt.Block) {
+                out.writeByte(BLOCK);
+                statements(((Stmt.Block) stmt).statements);
+            } else if (stmt instanceof Stmt.Sugod) {
+                out.writeByte(SUGOD);
+                statements(((Stmt.Sugod) stmt).statements);
+            } else if (stmt instanceof Stmt.Expression) {
+                out.writeByte(EXPRESSION);
+                expression(((Stmt.Expression) stmt).expression);
+            } else if (stmt instanceof Stmt.Print) {
+                out.writeByte(PRINT);
+                expression(((Stmt.Print) stmt).expression);
+            } else if (stmt instanceof Stmt.Var) {
+                out.writeByte(VAR);
+                var((Stmt.Var) stmt);
+            } else if (stmt instanceof Stmt.VarDeclaration) {
+                List<Stmt.Var> variables = ((Stmt.VarDeclaration) stmt).variables;
+                out.writeByte(VAR_DECLARATION);
+                out.writeInt(variables.size());
+                for (Stmt.Var var : variables) var(var);
+            } else if (stmt instanceof Stmt.Input) {
+                Stmt.Input input = (Stmt.Input) stmt;
+                out.writeByte(INPUT);
+                out.writeInt(input.getVariableNames().size());
+                for (int i = 0; i < input.getVariableNames().size(); i++) {
+                    token(input.getVariableNames().get(i));
+                    out.writeInt(input.slots[i]);
+                }
+            } else if (stmt instanceof Stmt.If) {
+                out.writeByte(IF);
+                expression(((Stmt.If) stmt).condition);
+                statement(((Stmt.If) stmt).thenBranch);
+                statement(((Stmt.If) stmt).elseBranch);
+            } else if (stmt instanceof Stmt.While) {
+                out.writeByte(WHILE);
+                expression(((Stmt.While) stmt).condition);
+                statement(((Stmt.While) stmt).body);
+            } else if (stmt instanceof Stmt.For) {
+                Stmt.For forStmt = (Stmt.For) stmt;
+                out.writeByte(FOR);
+                statement(forStmt.initializer);
+                expression(forStmt.condition);
+                expression(forStmt.increment);
+                statement(forStmt.body);
+            } else {
+                throw new IllegalArgumentException("Unknown statement " + stmt.getClass().getSimpleName());
+            }
+        }
+
+        private void var(Stmt.Var var) throws IOException {
+            token(var.name);
+            token(var.type);
+            expression(var.initializer);
+            out.writeInt(var.slot);
+            out.writeBoolean(var.checked);
+        }
+
+        private void expression(Expr expr) throws IOException {
+            if (expr == null) {
+                out.writeByte(ABSENT);
+                return;
+            }
+
+            if (expr instanceof Expr.Literal) {
+                out.writeByte(LITERAL);
+                value(((Expr.Literal) expr).value);
+            } else if (expr instanceof Expr.Variable) {
+                Expr.Variable variable = (Expr.Variable) expr;
+                out.writeByte(VARIABLE);
+                reference(variable.name, variable.slot);
+            } else if (expr instanceof Expr.Assign) {
+                Expr.Assign assign = (Expr.Assign) expr;
+                out.writeByte(ASSIGN);
+                reference(assign.name, assign.slot);
+                expression(assign.value);
+                out.writeBoolean(assign.checked);
+            } else if (expr instanceof Expr.Increment) {
+                Expr.Increment increment = (Expr.Increment) expr;
+                out.writeByte(INCREMENT);
+                reference(increment.name, increment.slot);
+            } else if (expr instanceof Expr.Decrement) {
+                Expr.Decrement decrement = (Expr.Decrement) expr;
+                out.writeByte(DECREMENT);
+                reference(decrement.name, decrement.slot);
+            } else if (expr instanceof Expr.Unary) {
+                out.writeByte(UNARY);
+                token(((Expr.Unary) expr).operator);
+                expression(((Expr.Unary) expr).right);
+            } else if (expr instanceof Expr.Binary) {
+                Expr.Binary binary = (Expr.Binary) expr;
+                out.writeByte(BINARY);
+                expression(binary.left);
+                token(binary.operator);
+                expression(binary.right);
+            } else if (expr instanceof Expr.Logical) {
+                Expr.Logical logical = (Expr.Logical) expr;
+                out.writeByte(LOGICAL);
+                expression(logical.left);
+                token(logical.operator);
+                expression(logical.right);
+            } else if (expr instanceof Expr.Grouping) {
+                out.writeByte(GROUPING);
+                expression(((Expr.Grouping) expr).expression);
+            } else if (expr instanceof Expr.Concat) {
+                List<Expr> parts = ((Expr.Concat) expr).parts;
+                out.writeByte(CONCAT);
+                out.writeInt(parts.size());
+                for (Expr part : parts) expression(part);
+            } else {
+                throw new IllegalArgumentException("Unknown expression " + expr.getClass().getSimpleName());
+            }
+            out.writeByte(expr.valueType.ordinal());
+        }
+
+        private void reference(Token name, int slot) throws IOException {
+            token(name);
+            out.writeInt(slot);
+        }
+
+        private void token(Token token) throws IOException {
+            if (token == null) {
+                out.writeInt(-1);
+                return;
+            }
+            Integer index = tokens.get(token);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+
+            // An index one past the table introduces a new token.
+            out.writeInt(tokens.size());
+            tokens.put(token, tokens.size());
+            out.writeByte(token.getTokenType().ordinal());
+            out.writeUTF(token.getLexeme());
+            value(token.getLiteral());
+            out.writeInt(token.getLine());
+        }
+
+        private void value(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof Double) {
+                out.writeByte(NUMBER);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) value);
+            } else if (value instanceof Character) {
+                out.writeByte(CHARACTER);
+                out.writeChar((Character) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else {
+                throw new IllegalArgumentException("Unknown literal " + value.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final List<Token> tokens = new ArrayList<>();
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        List<Stmt> statements() throws IOException {
+            int count = in.readInt();
+            List<Stmt> statements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) statements.add(statement());
+            return statements;
+        }
+
+        private Stmt statement() throws IOException {
+            int tag = in.readByte();
+            switch (tag) {
+                case ABSENT:
+                    return null;
+                case BLOCK:
+                    return new Stmt.Block(statements());
+                case SUGOD:
+                    return new Stmt.Sugod(statements());
+                case EXPRESSION:
+                    return new Stmt.Expression(expression());
+                case PRINT:
+                    return new Stmt.Print(expression());
+                case VAR:
+                    return var();
+                case VAR_DECLARATION: {
+                    int count = in.readInt();
+                    List<Stmt.Var> variables = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) variables.add(var());
+                    return new Stmt.VarDeclaration(variables);
+                }
+                case INPUT: {
+                    int count = in.readInt();
+                    List<Token> names = new ArrayList<>(count);
+                    int[] slots = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        names.add(token());
+                        slots[i] = in.readInt();
+                    }
+                    Stmt.Input input = new Stmt.Input(names);
+                    input.slots = slots;
+                    return input;
+                }
+                case IF:
+                    return new Stmt.If(expression(), statement(), statement());
+                case WHILE:
+                    return new Stmt.While(expression(), statement());
+                case FOR:
+                    return new Stmt.For(statement(), expression(), expression(), statement());
+                default:
+                    throw new IOException("Unknown statement tag " + tag + ".");
+            }
+        }
+
+        private Stmt.Var var() throws IOException {
+            Token name = token();
+            Token type = token();
+            Stmt.Var var = new Stmt.Var(name, expression(), type);
+            var.slot = in.readInt();
+            var.checked = in.readBoolean();
+            return var;
+        }
+
+        private Expr expression() throws IOException {
+            int tag = in.readByte();
+            Expr expr;
+            switch (tag) {
+                case ABSENT:
+                    return null;
+                case LITERAL:
+                    expr = new Expr.Literal(value());
+                    break;
+                case VARIABLE: {
+                    Expr.Variable variable = new Expr.Variable(token());
+                    variable.slot = in.readInt();
+                    expr = variable;
+                    break;
+                }
+                case ASSIGN: {
+                    Token name = token();
+                    int slot = in.readInt();
+                    Expr.Assign assign = new Expr.Assign(name, expression());
+                    assign.slot = slot;
+                    assign.checked = in.readBoolean();
+                    expr = assign;
+                    break;
+                }
+                case INCREMENT: {
+                    Expr.Increment increment = new Expr.Increment(token());
+                    increment.slot = in.readInt();
+                    expr = increment;
+                    break;
+                }
+                case DECREMENT: {
+                    Expr.Decrement decrement = new Expr.Decrement(token());
+                    decrement.slot = in.readInt();
+                    expr = decrement;
+                    break;
+                }
+                case UNARY:
+                    expr = new Expr.Unary(token(), expression());
+                    break;
+                case BINARY:
+                    expr = new Expr.Binary(expression(), token(), expression());
+                    break;
+                case LOGICAL:
+                    expr = new Expr.Logical(expression(), token(), expression());
+                    break;
+                case GROUPING:
+                    expr = new Expr.Grouping(expression());
+                    break;
+                case CONCAT: {
+                    int count = in.readInt();
+                    List<Expr> parts = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) parts.add(expression());
+                    expr = new Expr.Concat(parts);
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown expression tag " + tag + ".");
+            }
+            expr.valueType = VALUE_TYPES[in.readUnsignedByte()];
+            return expr;
+        }
+
+        private Token token() throws IOException {
+            int index = in.readInt();
+            if (index == -1) return null;
+            if (index < tokens.size()) return tokens.get(index);
+            if (index != tokens.size()) throw new IOException("Bad token index " + index + ".");
+
+            TokenType type = TOKEN_TYPES[in.readUnsignedByte()];
+            String lexeme = in.readUTF();
+            Object literal = value();
+            Token token = new Token(type, lexeme, literal, in.readInt());
+            tokens.add(token);
+            return token;
+        }
+
+        private Object value() throws IOException {
+            int tag = in.readByte();
+            return switch (tag) {
+                case NULL -> null;
+                case NUMBER -> in.readDouble();
+                case FLOAT -> in.readFloat();
+                case STRING -> in.readUTF();
+                case CHARACTER -> in.readChar();
+                case BOOLEAN -> in.readBoolean();
+                default -> throw new IOException("Unknown literal tag " + tag + ".");
+            };
+        }
+    }
+}
@@ -1,91 +1,144 @@
-//
-// Source code recreated from a .class file by IntelliJ IDEA
-// (powered by FernFlower decompiler)
-//
+// Generated by Tools.GenerateAst; change the node list there and regenerate.
 
 package SyntaxAnalyzer;
 
 import LexicalAnalyzer.Token;
-import LexicalAnalyzer.TokenType;
 
 import java.util.List;
 
-public abstract class Stmt {
-    public Stmt() {
+public abstract sealed class Stmt permits Stmt.Block, Stmt.Expression, Stmt.If, Stmt.Print, Stmt.Var, Stmt.VarDeclaration, Stmt.Sugod, Stmt.Input, Stmt.While, Stmt.For {
+    public static final int BLOCK = 0;
+    public static final int EXPRESSION = 1;
+    public static final int IF = 2;
+    public static final int PRINT = 3;
+    public static final int VAR = 4;
+    public static final int VAR_DECLARATION = 5;
+    public static final int SUGOD = 6;
+    public static final int INPUT = 7;
+    public static final int WHILE = 8;
+    public static final int FOR = 9;
+
+    // One of the constants above, fixed by the node class.
+    public final int kind;
+
+    Stmt(int kind) {
+        this.kind = kind;
     }
 
-    public abstract <R> R accept(Visitor<R> var1);
+    public abstract <R> R accept(Visitor<R> visitor);
 
-    public static class VarDeclaration extends Stmt {
-        public final List<Var> variables;
+    public static final class Block extends Stmt {
+        public final List<Stmt> statements;
 
-        public VarDeclaration(List<Var> variables) {
-            this.variables = variables;
+        Block(List<Stmt> statements) {
+            super(BLOCK);
+            this.statements = statements;
         }
 
         @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitVarDeclaration(this);
+            return visitor.visitBlockStmt(this);
         }
     }
 
-
-
-    public static class Expression extends Stmt {
+    public static final class Expression extends Stmt {
         public final Expr expression;
 
-        public Expression(Expr expression) {
+        Expression(Expr expression) {
+            super(EXPRESSION);
             this.expression = expression;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
             return visitor.visitExpressionStmt(this);
         }
     }
 
-    public static class Block extends Stmt {
-        public final List<Stmt> statements;
+    public static final class If extends Stmt {
+        public final Expr condition;
+        public final Stmt thenBranch;
+        public final Stmt elseBranch;
 
-        Block(List<Stmt> statements) {
-            this.statements = statements;
+        If(Expr condition, Stmt thenBranch, Stmt elseBranch) {
+            super(IF);
+            this.condition = condition;
+            this.thenBranch = thenBranch;
+            this.elseBranch = elseBranch;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitBlockStmt(this);
+            return visitor.visitIfStmt(this);
         }
     }
 
-    public static class Print extends Stmt {
+    public static final class Print extends Stmt {
         public final Expr expression;
 
         Print(Expr expression) {
+            super(PRINT);
             this.expression = expression;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
             return visitor.visitPrintStmt(this);
         }
     }
 
-    public static class Input extends Stmt {
-        private final List<Token> variableNames;
+    public static final class Var extends Stmt {
+        public final Token name;
+        public final Expr initializer;
+        public final Token type;
+        // Bound by the Resolver.
+        public int slot = -1;
+        // Set by the TypeChecker when the initializer never needs checking or coercing.
+        public boolean checked;
 
-        public Input(List<Token> variableNames) {
-            this.variableNames = variableNames;
+        // The declared type as NUMERO, TIPIK, LETRA or TINUOD.
+        public String getType() {
+            return switch (type.getTokenType()) {
+                case NUMERO -> "NUMERO";
+                case TIPIK -> "TIPIK";
+                case LETRA -> "LETRA";
+                case TINUOD -> "TINUOD";
+                default -> null;
+            };
         }
 
-        public List<Token> getVariableNames() {
-            return variableNames;
+        Var(Token name, Expr initializer, Token type) {
+            super(VAR);
+            this.name = name;
+            this.initializer = initializer;
+            this.type = type;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitInputStmt(this);
+            return visitor.visitVarStmt(this);
+        }
+    }
+
+    public static final class VarDeclaration extends Stmt {
+        public final List<Var> variables;
+
+        VarDeclaration(List<Var> variables) {
+            super(VAR_DECLARATION);
+            this.variables = variables;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitVarDeclarationStmt(this);
         }
     }
 
-    public static class Sugod extends Stmt {
+    public static final class Sugod extends Stmt {
         public final List<Stmt> statements;
+
         Sugod(List<Stmt> statements) {
+            super(SUGOD);
             this.statements = statements;
         }
 
@@ -95,77 +148,111 @@ public abstract class Stmt {
         }
     }
 
-    public static class While extends Stmt {
-        While(Expr condition, Stmt body) {
-            this.condition = condition;
-            this.body = body;
+    public static final class Input extends Stmt {
+        public final List<Token> variableNames;
+        // Bound by the Resolver, one slot per variable name.
+        public int[] slots;
+
+        public List<Token> getVariableNames() {
+            return variableNames;
+        }
+
+        Input(List<Token> variableNames) {
+            super(INPUT);
+            this.variableNames = variableNames;
         }
 
         @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitWhileStmt(this);
+            return visitor.visitInputStmt(this);
         }
+    }
 
+    public static final class While extends Stmt {
         public final Expr condition;
         public final Stmt body;
-    }
-
-    public static class Var extends Stmt {
-        public final Token name;
-        public final Expr initializer;
-        final Token type;
 
-        public Var(Token name, Expr initializer, Token type) {
-            this.name = name;
-            this.initializer = initializer;
-            this.type = type;
-        }
-
-        public String getType() {
-            if(type.getTokenType().equals(TokenType.NUMERO)){
-                return "NUMERO";
-            }else if(type.getTokenType().equals(TokenType.TIPIK)){
-                return "TIPIK";
-            }else if(type.getTokenType().equals(TokenType.LETRA)){
-                return "LETRA";
-            }else if(type.getTokenType().equals(TokenType.TINUOD)){
-                return "TINUOD";
-            }
-            return null;
+        While(Expr condition, Stmt body) {
+            super(WHILE);
+            this.condition = condition;
+            this.body = body;
         }
 
+        @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitVarStmt(this);
+            return visitor.visitWhileStmt(this);
         }
     }
 
-    public static class If extends Stmt {
-        If(Expr condition, Stmt thenBranch, Stmt elseBranch) {
+    // ALANG SA (initializer, condition, increment) body. Any clause may be
+    // absent; a missing condition is parsed as OO.
+    public static final class For extends Stmt {
+        public final Stmt initializer;
+        public final Expr condition;
+        public final Expr increment;
+        public final Stmt body;
+
+        For(Stmt initializer, Expr condition, Expr increment, Stmt body) {
+            super(FOR);
+            this.initializer = initializer;
             this.condition = condition;
-            this.thenBranch = thenBranch;
-            this.elseBranch = elseBranch;
+            this.increment = increment;
+            this.body = body;
         }
+
         @Override
         public <R> R accept(Visitor<R> visitor) {
-            return visitor.visitIfStmt(this);
+            return visitor.visitForStmt(this);
         }
-        public final Expr condition;
-        public final Stmt thenBranch;
-        public final Stmt elseBranch;
     }
 
     public interface Visitor<R> {
-        R visitBlockStmt(Block var1);
-
-        R visitExpressionStmt(Expression var1);
+        R visitBlockStmt(Block stmt);
 
-        R visitPrintStmt(Print var1);
+        R visitExpressionStmt(Expression stmt);
 
-        R visitVarStmt(Var var1);
         R visitIfStmt(If stmt);
-        R visitVarDeclaration(VarDeclaration stmt);
+
+        R visitPrintStmt(Print stmt);
+
+        R visitVarStmt(Var stmt);
+
+        R visitVarDeclarationStmt(VarDeclaration stmt);
+
         R visitSugodStmt(Sugod stmt);
+
         R visitInputStmt(Input stmt);
+
         R visitWhileStmt(While stmt);
+
+        R visitForStmt(For stmt);
+
+        // Same as stmt.accept(this), dispatched on the kind.
+        default R visit(Stmt stmt) {
+            switch (stmt.kind) {
+                case BLOCK:
+                    return visitBlockStmt((Block) stmt);
+                case EXPRESSION:
+                    return visitExpressionStmt((Expression) stmt);
+                case IF:
+                    return visitIfStmt((If) stmt);
+                case PRINT:
+                    return visitPrintStmt((Print) stmt);
+                case VAR:
+                    return visitVarStmt((Var) stmt);
+                case VAR_DECLARATION:
+                    return visitVarDeclarationStmt((VarDeclaration) stmt);
+                case SUGOD:
+                    return visitSugodStmt((Sugod) stmt);
+                case INPUT:
+                    return visitInputStmt((Input) stmt);
+                case WHILE:
+                    return visitWhileStmt((While) stmt);
+                case FOR:
+                    return visitForStmt((For) stmt);
+                default:
+                    throw new IllegalStateException("Unknown stmt kind " + stmt.kind);
+            }
+        }
     }
 }
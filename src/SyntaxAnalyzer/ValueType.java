@@ -0,0 +1,35 @@
+package SyntaxAnalyzer;
+
+// Static type of an expression, filled in by SematicAnalyzer.TypeChecker.
+public enum ValueType {
+    NUMERO, TIPIK, LETRA, TINUOD,
+    STRING,
+    NULL,
+    // Anything the checker cannot pin down, e.g. LETRA + LETRA or a mixed O/UG.
+    UNKNOWN;
+
+    public static ValueType ofDeclared(String type) {
+        if (type == null) return UNKNOWN;
+        return switch (type) {
+            case "NUMERO" -> NUMERO;
+            case "TIPIK" -> TIPIK;
+            case "LETRA" -> LETRA;
+            case "TINUOD" -> TINUOD;
+            default -> UNKNOWN;
+        };
+    }
+
+    public static ValueType ofValue(Object value) {
+        if (value == null) return NULL;
+        if (value instanceof Double) return NUMERO;
+        if (value instanceof Float) return TIPIK;
+        if (value instanceof Character) return LETRA;
+        if (value instanceof Boolean) return TINUOD;
+        if (value instanceof String) return STRING;
+        return UNKNOWN;
+    }
+
+    public boolean isKnown() {
+        return this != UNKNOWN;
+    }
+}
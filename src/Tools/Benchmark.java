@@ -0,0 +1,451 @@
+package Tools;
+
+import CodeGenerator.JitCompiler;
+import CodeGenerator.VM;
+import LexicalAnalyzer.ExecutionContext;
+import LexicalAnalyzer.Iskaner;
+import LexicalAnalyzer.NumberLiteral;
+import LexicalAnalyzer.ParallelIskaner;
+import LexicalAnalyzer.Token;
+import LexicalAnalyzer.TokenType;
+import SematicAnalyzer.ClosureInterpreter;
+import SematicAnalyzer.InputReader;
+import SematicAnalyzer.Interpreter;
+import SematicAnalyzer.NumberFormatter;
+import SematicAnalyzer.Operations;
+import SematicAnalyzer.OutputSink;
+import SematicAnalyzer.Resolver;
+import SematicAnalyzer.TypeChecker;
+import SyntaxAnalyzer.Optimizer;
+import SyntaxAnalyzer.Parser;
+import SyntaxAnalyzer.Stmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Rough wall-clock benchmarks for comparing execution engines.
+// Usage: benchmark [suite] [iterations]
+public class Benchmark {
+    private static final String LOOP_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i = 0, j = 0, total = 0
+                SAMTANG (i < 1000)
+                PUNDOK{
+                    j = 0
+                    SAMTANG (j < 1000)
+                    PUNDOK{
+                        total = total + i * j % 7
+                        j++
+                    }
+                    i++
+                }
+                IPAKITA: total & $
+            KATAPUSAN
+            """;
+
+    private static final String FOR_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i, j, total = 0
+                ALANG SA (i = 0, i < 1000, i++)
+                PUNDOK{
+                    ALANG SA (j = 0, j < 1000, j++)
+                    PUNDOK{
+                        total = total + i * j % 7
+                    }
+                }
+                IPAKITA: total & $
+            KATAPUSAN
+            """;
+
+    // Shaped like Test/LoopTest: a counted loop with a branch in the body,
+    // minus the printing so the interpreter's own allocations dominate.
+    private static final String ALLOC_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO ctr = 1, evens = 0, odds = 0
+                SAMTANG (ctr <= 1000000)
+                PUNDOK{
+                    KUNG (ctr % 2 == 0)
+                    PUNDOK{
+                        evens = evens + 1
+                    }
+                    KUNG WALA
+                    PUNDOK{
+                        odds = odds + 1
+                    }
+                    ctr++
+                }
+                IPAKITA: evens & $ & odds & $
+            KATAPUSAN
+            """;
+
+    private static final String PRINT_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i
+                ALANG SA (i = 0, i < 10000000, i++)
+                PUNDOK{
+                    IPAKITA: i & $
+                }
+            KATAPUSAN
+            """;
+
+    private static final String CONCAT_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i
+                MUGNA LETRA c = 'x'
+                ALANG SA (i = 0, i < 200000, i++)
+                PUNDOK{
+                    IPAKITA: "i=" & i & ", " & c & ", " & i * 2 & ", " & i % 7 & ", " & (i > 5) & $
+                }
+            KATAPUSAN
+            """;
+
+    private static final int INPUT_LINES = 200000;
+
+    private static final String INPUT_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i, a, b, total = 0
+                ALANG SA (i = 0, i < 200000, i++)
+                PUNDOK{
+                    DAWAT: a, b
+                    total = total + a * b
+                }
+                IPAKITA: total & $
+            KATAPUSAN
+            """;
+
+    private static final int CONTEXT_PROGRAMS = 64;
+
+    private static final String CONTEXT_PROGRAM = """
+            SUGOD
+                MUGNA NUMERO i, j, total = 0
+                ALANG SA (i = 0, i < 300, i++)
+                PUNDOK{
+                    ALANG SA (j = 0, j < 300, j++)
+                    PUNDOK{
+                        total = total + i * j % 7
+                    }
+                    IPAKITA: total & $
+                }
+            KATAPUSAN
+            """;
+
+    public static void main(String[] args) {
+        String suite = args.length > 0 ? args[0] : "loop";
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        switch (suite) {
+            case "loop" -> loop(iterations);
+            case "for" -> forLoop(iterations);
+            case "alloc" -> alloc(iterations);
+            case "untyped" -> untyped(iterations);
+            case "lex" -> lex(iterations);
+            case "parse" -> parseSuite(iterations);
+            case "print" -> print(iterations);
+            case "format" -> format(iterations);
+            case "concat" -> concat(iterations);
+            case "input" -> input(iterations);
+            case "contexts" -> contexts(iterations);
+            default -> {
+                System.err.println("Unknown suite '" + suite + "'.");
+                System.exit(64);
+            }
+        }
+    }
+
+    private static void loop(int iterations) {
+        List<Stmt> program = parse(LOOP_PROGRAM);
+        time("tree", iterations, () -> new Interpreter(false).interpret(program));
+        // Each Interpreter counts back-edges afresh, so the loops tier up again.
+        time("tree+osr", iterations, () -> new Interpreter().interpret(program));
+        time("closure", iterations, () -> new ClosureInterpreter().interpret(program));
+        time("vm", iterations, () -> new VM().interpret(program));
+        time("jit", iterations, () -> new JitCompiler().interpret(program));
+    }
+
+    private static void forLoop(int iterations) {
+        List<Stmt> program = parse(FOR_PROGRAM);
+        time("tree", iterations, () -> new Interpreter(false).interpret(program));
+        time("closure", iterations, () -> new ClosureInterpreter().interpret(program));
+        time("vm", iterations, () -> new VM().interpret(program));
+    }
+
+    private static void alloc(int iterations) {
+        List<Stmt> program = parse(ALLOC_PROGRAM);
+        allocated("tree", iterations, () -> new Interpreter(false).interpret(program));
+        allocated("closure", iterations, () -> new ClosureInterpreter().interpret(program));
+        allocated("vm", iterations, () -> new VM().interpret(program));
+    }
+
+    // The loop program without TypeChecker annotations, so the tree-walker
+    // cannot use its static NUMERO paths and goes through Operations.binary.
+    private static void untyped(int iterations) {
+        List<Stmt> program = new Parser(new Iskaner(LOOP_PROGRAM).scanBuffer()).parse();
+        new Resolver().resolve(program);
+        time("tree", iterations, () -> new Interpreter(false).interpret(program));
+        // Loops only tier up with the TypeChecker's annotations.
+        List<Stmt> typed = parse(LOOP_PROGRAM);
+        time("tree+osr", iterations, () -> new Interpreter().interpret(typed));
+        time("closure", iterations, () -> new ClosureInterpreter().interpret(program));
+    }
+
+    // Scanning only, over a keyword-heavy source of a few megabytes.
+    private static void lex(int iterations) {
+        String source = ALLOC_PROGRAM.repeat(10_000);
+        time("buffer", iterations, () -> new Iskaner(source).scanBuffer());
+        time("stream", iterations, () -> new Iskaner(source).scanTokens());
+        time("parallel", iterations, () -> ParallelIskaner.scan(source));
+        allocated("buffer", iterations, () -> new Iskaner(source).scanBuffer());
+        allocated("stream", iterations, () -> new Iskaner(source).scanTokens());
+    }
+
+    // Parsing an expression-heavy program; "lex" is the scanning part of it.
+    private static void parseSuite(int iterations) {
+        String line = "    total = (a + b * c - d / e) % 7 + -a * (b - c) & $ & (a < b UG c >= d O DILI (a == b <> c))\n";
+        String source = "SUGOD\n    MUGNA NUMERO a, b, c, d, e, total\n" + line.repeat(20_000) + "KATAPUSAN\n";
+        time("lex", iterations, () -> new Iskaner(source).scanBuffer());
+        time("lex+parse", iterations, () -> new Parser(new Iskaner(source).scanBuffer()).parse());
+        allocated("lex+parse", iterations, () -> new Parser(new Iskaner(source).scanBuffer()).parse());
+    }
+
+    // Printing 10M lines into a temporary file, truncated before each run:
+    // System.out's flush per newline against OutputSink, then the engines
+    // printing through the sink.
+    private static void print(int iterations) {
+        Path file;
+        try {
+            file = Files.createTempFile("bisayapp-print", ".txt");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+            FileChannel channel = out.getChannel();
+            PrintStream stream = new PrintStream(out, true);
+            OutputSink sink = new OutputSink(channel, 64 * 1024, Charset.defaultCharset());
+            List<Stmt> program = parse(PRINT_PROGRAM);
+
+            time("printstream", iterations, () -> {
+                truncate(channel);
+                for (int i = 0; i < 10_000_000; i++) stream.print(Operations.stringify((double) i) + "\n");
+            });
+            time("sink", iterations, () -> {
+                truncate(channel);
+                for (int i = 0; i < 10_000_000; i++) sink.print(Operations.stringify((double) i) + "\n");
+                sink.flush();
+            });
+
+            ExecutionContext context = new ExecutionContext(InputReader.standard(), sink, System.err);
+            time("tree", iterations, () -> {
+                truncate(channel);
+                new Interpreter(false, context).interpret(program);
+                sink.flush();
+            });
+            time("vm", iterations, () -> {
+                truncate(channel);
+                new VM(context).interpret(program);
+                sink.flush();
+            });
+            time("jit", iterations, () -> {
+                truncate(channel);
+                new JitCompiler(context).interpret(program);
+                sink.flush();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // Formatting a million NUMERO values, mostly whole with some decimals:
+    // the old toString-and-substring against NumberFormatter, as Strings
+    // and straight into a byte buffer.
+    private static void format(int iterations) {
+        double[] values = new double[1_000_000];
+        for (int i = 0; i < values.length; i++) values[i] = i % 4 == 0 ? i / 8.0 : i;
+        byte[] buffer = new byte[NumberFormatter.MAX_LENGTH];
+        long[] sink = new long[1];
+
+        Runnable substring = () -> {
+            for (double value : values) {
+                String text = Double.toString(value);
+                if (text.endsWith(".0")) text = text.substring(0, text.length() - 2);
+                sink[0] += text.length();
+            }
+        };
+        Runnable string = () -> {
+            for (double value : values) sink[0] += NumberFormatter.toString(value).length();
+        };
+        Runnable bytes = () -> {
+            for (double value : values) sink[0] += NumberFormatter.format(value, buffer, 0);
+        };
+        time("substring", iterations, substring);
+        time("string", iterations, string);
+        time("bytes", iterations, bytes);
+        allocated("substring", iterations, substring);
+        allocated("string", iterations, string);
+        allocated("bytes", iterations, bytes);
+        Reference.reachabilityFence(sink);
+    }
+
+    // An IPAKITA of a long & chain, as parsed (nested Binary nodes) and as
+    // the Optimizer leaves it (one Concat printed part by part). The output
+    // is discarded so only building it is measured.
+    private static void concat(int iterations) {
+        ExecutionContext context = discarding(InputReader.standard());
+        List<Stmt> chain = parse(CONCAT_PROGRAM);
+        List<Stmt> fused = new Optimizer().optimize(parse(CONCAT_PROGRAM));
+        new Resolver().resolve(fused);
+        new TypeChecker().check(fused);
+
+        time("tree", iterations, () -> new Interpreter(false, context).interpret(chain));
+        time("tree+concat", iterations, () -> new Interpreter(false, context).interpret(fused));
+        time("closure", iterations, () -> new ClosureInterpreter(context).interpret(chain));
+        time("closure+concat", iterations, () -> new ClosureInterpreter(context).interpret(fused));
+        time("vm", iterations, () -> new VM(context).interpret(chain));
+        time("vm+concat", iterations, () -> new VM(context).interpret(fused));
+        allocated("tree", iterations, () -> new Interpreter(false, context).interpret(chain));
+        allocated("tree+concat", iterations, () -> new Interpreter(false, context).interpret(fused));
+    }
+
+    // Reading INPUT_LINES "a, b" lines: one Scanner with nextLine and split,
+    // as DAWAT used to (though it made a new Scanner per line), against an
+    // InputReader, then whole programs doing a DAWAT per iteration. Prompts
+    // and output are discarded.
+    private static void input(int iterations) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < INPUT_LINES; i++) text.append(i).append(", ").append(i % 1000 / 8.0).append('\n');
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+        List<Token> variables = List.of(new Token(TokenType.IDENTIFIER, "a", null, 1),
+                new Token(TokenType.IDENTIFIER, "b", null, 1));
+        double[] sink = new double[1];
+        OutputSink prompts = discarding(InputReader.standard()).output();
+        List<Stmt> program = parse(INPUT_PROGRAM);
+
+        Runnable scanner = () -> {
+            Scanner lines = new Scanner(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+            for (int i = 0; i < INPUT_LINES; i++) {
+                String[] fields = lines.nextLine().split(",");
+                sink[0] += NumberLiteral.parse(fields[0].trim()) * NumberLiteral.parse(fields[1].trim());
+            }
+        };
+        Runnable reader = () -> {
+            InputReader lines = new InputReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+            for (int i = 0; i < INPUT_LINES; i++) {
+                lines.read(variables, prompts);
+                sink[0] += (Double) lines.value(0, variables.get(0), "NUMERO", null)
+                        * (Double) lines.value(1, variables.get(1), "NUMERO", null);
+            }
+        };
+        time("scanner", iterations, scanner);
+        time("reader", iterations, reader);
+        time("tree", iterations, () -> new Interpreter(false, discarding(
+                new InputReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8))).interpret(program));
+        time("vm", iterations, () -> new VM(discarding(
+                new InputReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8))).interpret(program));
+        allocated("scanner", iterations, scanner);
+        allocated("reader", iterations, reader);
+        Reference.reachabilityFence(sink);
+    }
+
+    // CONTEXT_PROGRAMS copies of a small program, each lexed, parsed, checked
+    // and run in an ExecutionContext of its own: one after another, then on
+    // a thread pool, as a server running many scripts in one JVM would.
+    private static void contexts(int iterations) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            time("sequential", iterations, () -> {
+                for (int i = 0; i < CONTEXT_PROGRAMS; i++) runInContext(CONTEXT_PROGRAM);
+            });
+            time("pool x" + threads, iterations, () -> {
+                List<Future<?>> runs = new ArrayList<>();
+                for (int i = 0; i < CONTEXT_PROGRAMS; i++) runs.add(pool.submit(() -> runInContext(CONTEXT_PROGRAM)));
+                try {
+                    for (Future<?> run : runs) run.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void runInContext(String source) {
+        ExecutionContext context = discarding(InputReader.standard());
+        List<Stmt> statements = new Parser(new Iskaner(source, context).scanBuffer(), context).parse();
+        new Resolver().resolve(statements);
+        new TypeChecker(context).check(statements);
+        new VM(context).interpret(statements);
+        context.output().flush();
+    }
+
+    // A context whose output and diagnostics are thrown away.
+    private static ExecutionContext discarding(InputReader input) {
+        OutputSink output = new OutputSink(Channels.newChannel(OutputStream.nullOutputStream()), 64 * 1024,
+                Charset.defaultCharset());
+        return new ExecutionContext(input, output, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static void truncate(FileChannel channel) {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Stmt> parse(String source) {
+        List<Stmt> statements = new Parser(new Iskaner(source).scanBuffer()).parse();
+        new Resolver().resolve(statements);
+        new TypeChecker().check(statements);
+        return statements;
+    }
+
+    static void time(String name, int iterations, Runnable body) {
+        // Warm up so the JIT has compiled the engine before we measure it.
+        for (int i = 0; i < 3; i++) body.run();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) body.run();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-14s %8.2f ms/run%n", name, elapsed / 1e6 / iterations);
+    }
+
+    // Bytes allocated by this thread per run, as reported by HotSpot.
+    static void allocated(String name, int iterations, Runnable body) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < 3; i++) body.run();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iterations; i++) body.run();
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        System.out.printf("%-14s %12.0f bytes/run%n", name, (double) bytes / iterations);
+    }
+}
@@ -2,9 +2,20 @@ package Tools;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-
+import java.util.Locale;
+
+// Writes SyntaxAnalyzer/Expr.java and Stmt.java. Each base class is sealed
+// over its final node classes, and every node carries a small integer kind.
+// Besides accept(), each Visitor gets a default visit() that switches on the
+// kind, so a visitor calling visit() on itself dispatches without a
+// megamorphic accept() call.
+//
+// A node is "Name : constructor fields" followed by member lines that are
+// copied into the class as they are, for fields the later passes fill in.
+// Comment lines before the signature go above the class.
 public class GenerateAst {
     public static void main(String[] args) throws IOException {
         if(args.length != 1) {
@@ -12,91 +23,208 @@ public class GenerateAst {
             System.exit(64);
         }
         String outputDir = args[0];
-        defineAst(outputDir, "Expr", Arrays.asList(
-                "Assign : Token name, Expr value",
-                "Binary   : Expr left, Token operator, Expr right",
-                "Grouping : Expr expression",
-                "Literal  : Object value",
-                "Logical : Expr left, Token operator, Expr right",
-                "Unary : Token operator, Expr right",
-                "Variable : Token name"
-        ));
-
-        defineAst(outputDir, "Stmt", Arrays.asList(
-                "Block : List<Stmt> statements",
-                "Expression : Expr expression",
-                "If : Expr condition, Stmt thenBranch," + " Stmt elseBranch",
-                "Print : Expr expression",
-                "Var : Token name, Expr initializer",
-                "While : Token name, Stmt body"
-        ));
+        defineAst(outputDir, "Expr",
+                List.of("LexicalAnalyzer.Token", "java.util.List"),
+                List.of(
+                        "// Static type, filled in by the TypeChecker.",
+                        "public ValueType valueType = ValueType.UNKNOWN;"),
+                List.of(
+                        node("Assign : Token name, Expr value",
+                                "// Bound by the Resolver.",
+                                "public int slot = -1;",
+                                "// Set by the TypeChecker when the value always fits the declared type.",
+                                "public boolean checked;"),
+                        node("Binary : Expr left, Token operator, Expr right"),
+                        node("Grouping : Expr expression"),
+                        node("Literal : Object value"),
+                        node("Logical : Expr left, Token operator, Expr right"),
+                        node("Unary : Token operator, Expr right"),
+                        node("Variable : Token name",
+                                "// Bound by the Resolver.",
+                                "public int slot = -1;"),
+                        node("Increment : Token name",
+                                "// Bound by the Resolver.",
+                                "public int slot = -1;"),
+                        node("Decrement : Token name",
+                                "// Bound by the Resolver.",
+                                "public int slot = -1;"),
+                        node("// A chain of & and $ flattened by the Optimizer; each $ is a \"\\n\" part.",
+                                "Concat : List<Expr> parts")
+                ));
+
+        defineAst(outputDir, "Stmt",
+                List.of("LexicalAnalyzer.Token", "java.util.List"),
+                List.of(),
+                List.of(
+                        node("Block : List<Stmt> statements"),
+                        node("Expression : Expr expression"),
+                        node("If : Expr condition, Stmt thenBranch, Stmt elseBranch"),
+                        node("Print : Expr expression"),
+                        node("Var : Token name, Expr initializer, Token type",
+                                "// Bound by the Resolver.",
+                                "public int slot = -1;",
+                                "// Set by the TypeChecker when the initializer never needs checking or coercing.",
+                                "public boolean checked;",
+                                "",
+                                "// The declared type as NUMERO, TIPIK, LETRA or TINUOD.",
+                                "public String getType() {",
+                                "    return switch (type.getTokenType()) {",
+                                "        case NUMERO -> \"NUMERO\";",
+                                "        case TIPIK -> \"TIPIK\";",
+                                "        case LETRA -> \"LETRA\";",
+                                "        case TINUOD -> \"TINUOD\";",
+                                "        default -> null;",
+                                "    };",
+                                "}"),
+                        node("VarDeclaration : List<Var> variables"),
+                        node("Sugod : List<Stmt> statements"),
+                        node("Input : List<Token> variableNames",
+                                "// Bound by the Resolver, one slot per variable name.",
+                                "public int[] slots;",
+                                "",
+                                "public List<Token> getVariableNames() {",
+                                "    return variableNames;",
+                                "}"),
+                        node("While : Expr condition, Stmt body"),
+                        node("// ALANG SA (initializer, condition, increment) body. Any clause may be",
+                                "// absent; a missing condition is parsed as OO.",
+                                "For : Stmt initializer, Expr condition, Expr increment, Stmt body")
+                ));
+    }
+
+    private static List<String> node(String... lines) {
+        return Arrays.asList(lines);
+    }
+
+    private static int signatureIndex(List<String> node) {
+        int index = 0;
+        while (node.get(index).startsWith("//")) index++;
+        return index;
+    }
+
+    private static String className(List<String> node) {
+        return node.get(signatureIndex(node)).split(":")[0].trim();
     }
 
-    private static void defineAst(String outputDir, String baseName, List<String> types) throws IOException {
+    private static void defineAst(String outputDir, String baseName, List<String> imports,
+            List<String> baseMembers, List<List<String>> types) throws IOException {
         String path = outputDir + "/" + baseName + ".java";
         PrintWriter writer = new PrintWriter(path, "UTF-8");
 
+        List<String> names = new ArrayList<>();
+        for (List<String> type : types) names.add(className(type));
+
+        writer.println("// Generated by Tools.GenerateAst; change the node list there and regenerate.");
+        writer.println();
         writer.println("package SyntaxAnalyzer;");
         writer.println();
-        writer.println("import java.util.List;");
+        for (String name : imports) {
+            if (name.startsWith("java.")) continue;
+            writer.println("import " + name + ";");
+        }
         writer.println();
-        writer.println("abstract class " + baseName + " {");
+        for (String name : imports) {
+            if (!name.startsWith("java.")) continue;
+            writer.println("import " + name + ";");
+        }
+        if (imports.stream().anyMatch(name -> name.startsWith("java."))) writer.println();
+
+        List<String> permits = new ArrayList<>();
+        for (String name : names) permits.add(baseName + "." + name);
+        writer.println("public abstract sealed class " + baseName + " permits " + String.join(", ", permits) + " {");
 
-        defineVisitor(writer, baseName, types);
+        // Kind tags
+        for (int i = 0; i < names.size(); i++) {
+            writer.println("    public static final int " + constantName(names.get(i)) + " = " + i + ";");
+        }
+        writer.println();
+        writer.println("    // One of the constants above, fixed by the node class.");
+        writer.println("    public final int kind;");
+        for (String member : baseMembers) writer.println("    " + member);
+        writer.println();
+        writer.println("    " + baseName + "(int kind) {");
+        writer.println("        this.kind = kind;");
+        writer.println("    }");
+        writer.println();
+        writer.println("    public abstract <R> R accept(Visitor<R> visitor);");
 
         // The AST Classes
-        for(String type : types) {
-            String className = type.split(":")[0].trim();
-            String fields = type.split(":")[1].trim();
-            defineType(writer, baseName, className, fields);
+        for (List<String> type : types) {
+            int signature = signatureIndex(type);
+            String fields = type.get(signature).split(":")[1].trim();
+            defineType(writer, baseName, className(type), fields, type.subList(0, signature),
+                    type.subList(signature + 1, type.size()));
         }
 
-        // The base accept() method
         writer.println();
-        writer.println(" abstract <R> R accept(Visitor<R> visitor);");
+        defineVisitor(writer, baseName, names);
         writer.println("}");
         writer.close();
     }
 
-    private static void defineVisitor(PrintWriter writer, String baseName, List<String> types) {
-        writer.println(" interface Visitor<R> {");
+    private static void defineVisitor(PrintWriter writer, String baseName, List<String> names) {
+        String parameter = baseName.toLowerCase(Locale.ROOT);
+        writer.println("    public interface Visitor<R> {");
 
-        for (String type : types) {
-            String typeName = type.split(":")[0].trim();
-            writer.println(" R visit" + typeName + baseName + "(" + typeName + " " + baseName.toLowerCase() + ");");
+        for (String name : names) {
+            writer.println("        R visit" + name + baseName + "(" + name + " " + parameter + ");");
+            writer.println();
         }
 
-        writer.println(" }");
+        writer.println("        // Same as " + parameter + ".accept(this), dispatched on the kind.");
+        writer.println("        default R visit(" + baseName + " " + parameter + ") {");
+        writer.println("            switch (" + parameter + ".kind) {");
+        for (String name : names) {
+            writer.println("                case " + constantName(name) + ":");
+            writer.println("                    return visit" + name + baseName + "((" + name + ") " + parameter + ");");
+        }
+        writer.println("                default:");
+        writer.println("                    throw new IllegalStateException(\"Unknown " + parameter + " kind \" + "
+                + parameter + ".kind);");
+        writer.println("            }");
+        writer.println("        }");
+        writer.println("    }");
     }
 
-    private static void defineType(PrintWriter writer, String baseName, String className, String fieldList) {
-        writer.println(" static class" + className + " extends " + baseName + " {");
+    private static void defineType(PrintWriter writer, String baseName, String className, String fieldList,
+            List<String> comments, List<String> members) {
+        writer.println();
+        for (String comment : comments) writer.println("    " + comment);
+        writer.println("    public static final class " + className + " extends " + baseName + " {");
+
+        // Fields
+        String[] fields = fieldList.split(", ");
+        for (String field : fields) {
+            writer.println("        public final " + field + ";");
+        }
+        for (String member : members) {
+            writer.println(member.isEmpty() ? "" : "        " + member);
+        }
 
         // Constructor
-        writer.println(" " + className + "(" + fieldList + ") {");
+        writer.println();
+        writer.println("        " + className + "(" + fieldList + ") {");
+        writer.println("            super(" + constantName(className) + ");");
 
         // Store parameters in fields
-        String[] fields = fieldList.split(", ");
-        for(String field : fields) {
+        for (String field : fields) {
             String name = field.split(" ")[1];
-            writer.println(" this." + name + " = " + name + ";");
+            writer.println("            this." + name + " = " + name + ";");
         }
 
-        writer.println(" }");
+        writer.println("        }");
 
         // Visitor pattern
         writer.println();
-        writer.println(" @Override");
-        writer.println(" <R> R accept(Visitor<R> visitor) {");
-        writer.println(" return visitor.visit" + className + baseName + "(this);");
-        writer.println(" }");
-
-        // Fields
-        writer.println();
-        for(String field : fields) {
-            writer.println(" final " + field + ";");
-        }
+        writer.println("        @Override");
+        writer.println("        public <R> R accept(Visitor<R> visitor) {");
+        writer.println("            return visitor.visit" + className + baseName + "(this);");
+        writer.println("        }");
+        writer.println("    }");
+    }
 
-        writer.println(" }");
+    // VarDeclaration -> VAR_DECLARATION
+    private static String constantName(String className) {
+        return className.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
     }
 }